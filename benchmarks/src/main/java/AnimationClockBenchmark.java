@@ -0,0 +1,71 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AnimationClockBenchmark {
+    private static final int LEGACY_DELAY = 25;
+
+    public static void main(String[] args) throws Exception {
+        int[] counts = {1, 10, 81, 500};
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        System.out.printf("%-10s %-8s %12s %12s %14s%n", "animations", "driver", "wakeups/s", "repaints/s", "frame mean/max");
+        for (int count : counts) {
+            legacy(count, millis);
+            clock(count, millis);
+        }
+    }
+
+    private static void legacy(int count, long millis) throws Exception {
+        CountingComponent component = new CountingComponent();
+        AtomicLong wakeups = new AtomicLong();
+        Timer[] timers = new Timer[count];
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < count; i++) {
+                int cell = i;
+                timers[i] = new Timer(LEGACY_DELAY, e -> {
+                    wakeups.incrementAndGet();
+                    component.repaint(cell % 30 * 10, cell / 30 * 10, 10, 10);
+                });
+                timers[i].start();
+            }
+        });
+        Thread.sleep(millis);
+        SwingUtilities.invokeAndWait(() -> {
+            for (Timer timer : timers) {
+                timer.stop();
+            }
+        });
+        System.out.printf("%-10d %-8s %12.0f %12.0f %14s%n", count, "timers",
+                wakeups.get() * 1000.0 / millis, component.repaints.get() * 1000.0 / millis, "-");
+    }
+
+    private static void clock(int count, long millis) throws Exception {
+        CountingComponent component = new CountingComponent();
+        AnimationClock clock = new AnimationClock();
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < count; i++) {
+                int cell = i;
+                clock.start(now -> {
+                    clock.repaint(component, cell % 30 * 10, cell / 30 * 10, 10, 10);
+                    return now < deadline;
+                });
+            }
+        });
+        Thread.sleep(millis + 200);
+        boolean[] idle = new boolean[1];
+        SwingUtilities.invokeAndWait(() -> idle[0] = clock.isIdle());
+        System.out.printf("%-10d %-8s %12.0f %12.0f %8.3f/%.3f ms, dropped %d, idle after %b%n", count, "clock",
+                clock.getFrameCount() * 1000.0 / millis, component.repaints.get() * 1000.0 / millis,
+                clock.getMeanFrameNanos() / 1e6, clock.getMaxFrameNanos() / 1e6, clock.getDroppedFrameCount(), idle[0]);
+    }
+
+    private static class CountingComponent extends JComponent {
+        private final AtomicLong repaints = new AtomicLong();
+
+        @Override
+        public void repaint(long time, int x, int y, int width, int height) {
+            repaints.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+public class BallPaintBenchmark {
+    public static void main(String[] args) {
+        int[] cellSizes = args.length > 0 ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray() : new int[]{32, 64, 128};
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        for (int cellSize : cellSizes) {
+            run(cellSize, frames);
+        }
+    }
+
+    private static void run(int cellSize, int frames) {
+        GameConfig config = GameConfig.DEFAULT;
+        Color[] palette = new ColorManager(new GameEngine()).getTileColors();
+        Random random = new Random(cellSize);
+        Color[] balls = new Color[config.getCellCount()];
+        for (int i = 0; i < balls.length; i++) {
+            balls[i] = palette[random.nextInt(palette.length)];
+        }
+        int selected = random.nextInt(balls.length);
+        BufferedImage frame = new BufferedImage(config.getWidth() * cellSize, config.getHeight() * cellSize, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = frame.createGraphics();
+
+        BallSprites.clear();
+        long firstFrame = time(() -> paintCached(g, balls, selected, config.getWidth(), cellSize));
+        for (int warmup = 0; warmup < 3; warmup++) {
+            for (int i = 0; i < frames; i++) {
+                paintLegacy(g, balls, selected, config.getWidth(), cellSize);
+                paintCached(g, balls, selected, config.getWidth(), cellSize);
+            }
+        }
+        long legacy = time(() -> {
+            for (int i = 0; i < frames; i++) paintLegacy(g, balls, selected, config.getWidth(), cellSize);
+        });
+        long cached = time(() -> {
+            for (int i = 0; i < frames; i++) paintCached(g, balls, selected, config.getWidth(), cellSize);
+        });
+        g.dispose();
+
+        System.out.printf("%d px cells, %d balls: per-paint ovals %.1f us/frame, cached sprites %.1f us/frame (%.1fx), first cached frame %.1f us, %d sprites%n",
+                cellSize, balls.length, legacy / 1e3 / frames, cached / 1e3 / frames, (double) legacy / cached,
+                firstFrame / 1e3, BallSprites.size());
+    }
+
+    private static void paintCached(Graphics2D g, Color[] balls, int selected, int width, int cellSize) {
+        int size = cellSize - 10;
+        for (int i = 0; i < balls.length; i++) {
+            int x = i % width * cellSize + 5;
+            int y = i / width * cellSize + 5;
+            Image sprite = BallSprites.get(balls[i], size, i == selected, null);
+            g.drawImage(sprite, x - BallSprites.PADDING, y - BallSprites.PADDING, null);
+        }
+    }
+
+    private static void paintLegacy(Graphics2D g, Color[] balls, int selected, int width, int cellSize) {
+        int size = cellSize - 10;
+        for (int i = 0; i < balls.length; i++) {
+            int x = i % width * cellSize + 5;
+            int y = i / width * cellSize + 5;
+            Graphics2D g2d = (Graphics2D) g.create();
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setColor(balls[i]);
+            g2d.fillOval(x, y, size, size);
+            g2d.setColor(new Color(255, 255, 255, 100));
+            g2d.fillOval(x + size / 4, y + size / 4, size / 4, size / 4);
+            if (i == selected) {
+                g2d.setColor(new Color(255, 255, 255, 180));
+                g2d.setStroke(new BasicStroke(2.0f));
+                g2d.drawOval(x, y, size, size);
+            }
+            g2d.dispose();
+        }
+    }
+
+    private static long time(Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        return System.nanoTime() - start;
+    }
+}
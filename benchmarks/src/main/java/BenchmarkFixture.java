@@ -0,0 +1,182 @@
+import jmh.GameFixture;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Random;
+
+public class BenchmarkFixture implements GameFixture {
+    private static final int QUERIES = 1024;
+    private static final int RESTORE_INTERVAL = 16;
+    private static final int JOURNAL_MOVES = 40;
+
+    private GameEngine engine;
+    private GameEngine pristine;
+    private LineDetector lines;
+    private GameBoard board;
+    private File saveFile;
+    private File journalFile;
+    private File leaderboardFile;
+    private GameEngine recovered;
+    private BoardCanvas canvas;
+    private BufferedImage image;
+    private Graphics2D graphics;
+    private int[] from;
+    private int[] to;
+    private int query;
+    private int spawns;
+    private int width;
+
+    @Override
+    public void setUp(int size, double fill, long seed) throws Exception {
+        GameConfig config = new GameConfig(size, size, 5, 7, 3);
+        Random random = new Random(seed);
+        width = size;
+
+        saveFile = File.createTempFile("color-lines-bench", ".dat");
+        leaderboardFile = File.createTempFile("color-lines-bench", ".leaderboard");
+        board = new GameBoard(new ScoreManager(leaderboardFile), config, saveFile);
+        engine = board.getEngine();
+        engine.clearBoard();
+        engine.beginBulkUpdate();
+        for (int i = 0; i < config.getCellCount(); i++) {
+            if (random.nextDouble() < fill) {
+                engine.setColor(i / size, i % size, random.nextInt(config.getColorCount()));
+            }
+        }
+        engine.endBulkUpdate();
+        engine.generateNextColors();
+        pristine = engine.copy();
+
+        lines = new LineDetector(size, size, config.getColorCount(), config.getConnectCount());
+        for (int i = 0; i < config.getCellCount(); i++) {
+            int color = engine.getColor(i / size, i % size);
+            if (color != GameEngine.EMPTY) lines.set(i / size, i % size, color);
+        }
+        lines.detect();
+
+        from = new int[QUERIES];
+        to = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            from[i] = randomCell(random, config.getCellCount(), false);
+            to[i] = randomCell(random, config.getCellCount(), true);
+        }
+        SaveFormat.write(saveFile, engine.snapshot());
+        writeJournal(config, random);
+    }
+
+    private void writeJournal(GameConfig config, Random random) throws Exception {
+        journalFile = File.createTempFile("color-lines-bench", ".journal");
+        GameEngine player = engine.copy();
+        MovePolicy policy = MovePolicy.forName("random");
+        int[] move = new int[4];
+        try (MoveJournal journal = new MoveJournal(journalFile)) {
+            journal.reset(player.snapshot());
+            player.setRecorder(journal);
+            for (int turn = 0; turn < JOURNAL_MOVES && policy.chooseMove(player, random, move); turn++) {
+                if (player.playTurn(move[0], move[1], move[2], move[3]) == GameEngine.TurnResult.GAME_OVER) break;
+            }
+        }
+        recovered = new GameEngine(config, new GameRandom());
+    }
+
+    private int randomCell(Random random, int cellCount, boolean empty) {
+        for (int attempt = 0; attempt < 10000; attempt++) {
+            int cell = random.nextInt(cellCount);
+            if (engine.isEmpty(cell / width, cell % width) == empty) return cell;
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean hasPath() {
+        int i = query++ & (QUERIES - 1);
+        return engine.hasPath(from[i] / width, from[i] % width, to[i] / width, to[i] % width);
+    }
+
+    @Override
+    public int checkForConnects() {
+        return lines.detect();
+    }
+
+    @Override
+    public long detectCrossPatterns() {
+        lines.detectCrossPatterns();
+        return lines.getCrossMask()[0];
+    }
+
+    @Override
+    public boolean addNextBallsAndCheck() {
+        if (++spawns == RESTORE_INTERVAL || engine.countEmpty() < 2 * engine.getNextColors().length) {
+            engine.copyFrom(pristine);
+            spawns = 0;
+        }
+        return engine.spawnNextBalls();
+    }
+
+    @Override
+    public int writeSave() throws Exception {
+        return SaveFormat.write(saveFile, engine.snapshot());
+    }
+
+    @Override
+    public Object readSave() throws Exception {
+        return SaveFormat.read(saveFile);
+    }
+
+    @Override
+    public int recoverJournal() throws Exception {
+        try (MoveJournal journal = new MoveJournal(journalFile)) {
+            recovered.restore(journal.recover());
+            return journal.replayTail(recovered);
+        }
+    }
+
+    @Override
+    public void setUpPaint(int boardSize, int cellSize, boolean selected, boolean fullRepaint) {
+        Color[] palette = ColorManager.createPalette(GameConfig.DEFAULT.getColorCount());
+        Random random = new Random(boardSize);
+        canvas = new BoardCanvas(boardSize, boardSize);
+        canvas.setSize(boardSize * cellSize, boardSize * cellSize);
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                if (random.nextInt(3) != 0) {
+                    canvas.setBallColor(row, col, palette[random.nextInt(palette.length)]);
+                }
+            }
+        }
+        int center = boardSize / 2;
+        canvas.setBallColor(center, center, palette[0]);
+        if (selected) {
+            canvas.setSelected(center, center, true);
+            for (int row = 0; row < boardSize; row++) {
+                for (int col = 0; col < boardSize; col++) {
+                    canvas.setReachable(row, col, canvas.getBallColor(row, col) == null);
+                }
+            }
+        }
+        image = new BufferedImage(canvas.getWidth(), canvas.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+        if (!fullRepaint) {
+            graphics.clipRect(center * cellSize, center * cellSize, cellSize, cellSize);
+        }
+    }
+
+    @Override
+    public void paintBoard() {
+        canvas.paintComponent(graphics);
+    }
+
+    @Override
+    public void tearDown() {
+        if (graphics != null) graphics.dispose();
+        if (canvas != null) canvas.clearSelection();
+        if (saveFile != null) saveFile.delete();
+        if (journalFile != null) journalFile.delete();
+        if (board != null) board.getJournalFile().delete();
+        if (leaderboardFile != null) {
+            leaderboardFile.delete();
+            new File(leaderboardFile.getPath() + ".idx").delete();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+public class BoardPaintBenchmark {
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray() : new int[]{9, 30, 100};
+        int pixels = args.length > 1 ? Integer.parseInt(args[1]) : 900;
+        for (int size : sizes) {
+            run(size, pixels);
+        }
+    }
+
+    private static void run(int size, int pixels) {
+        Color[] palette = new ColorManager(new GameEngine()).getTileColors();
+        Random random = new Random(size);
+        Color[] balls = new Color[size * size];
+        for (int i = 0; i < balls.length; i++) {
+            balls[i] = random.nextInt(3) == 0 ? null : palette[random.nextInt(palette.length)];
+        }
+        int frames = Math.max(5, 20000 / balls.length);
+        BufferedImage image = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+
+        buildButtons(balls, size, pixels);
+        buildCanvas(balls, size, pixels);
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        JPanel buttons = buildButtons(balls, size, pixels);
+        long buttonBuild = System.nanoTime() - start;
+        long buttonHeap = usedHeap() - heapBefore;
+
+        heapBefore = usedHeap();
+        start = System.nanoTime();
+        BoardCanvas canvas = buildCanvas(balls, size, pixels);
+        long canvasBuild = System.nanoTime() - start;
+        long canvasHeap = usedHeap() - heapBefore;
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            for (int i = 0; i < frames; i++) {
+                buttons.paint(g);
+                canvas.paint(g);
+            }
+        }
+        long buttonFrame = time(frames, () -> buttons.paint(g));
+        long canvasFrame = time(frames, () -> canvas.paint(g));
+
+        int cell = pixels / size;
+        Component button = buttons.getComponent(balls.length / 2);
+        Graphics2D cellGraphics = (Graphics2D) g.create(button.getX(), button.getY(), button.getWidth(), button.getHeight());
+        long buttonCell = time(frames * 20, () -> button.paint(cellGraphics));
+        cellGraphics.dispose();
+        Graphics2D clipped = (Graphics2D) g.create();
+        clipped.clipRect(button.getX(), button.getY(), cell, cell);
+        long canvasCell = time(frames * 20, () -> canvas.paint(clipped));
+        clipped.dispose();
+        g.dispose();
+
+        System.out.printf("%dx%d board at %d px: components %d vs 1, build+layout %.1f ms vs %.1f ms, heap ~%d KB vs ~%d KB%n",
+                size, size, pixels, buttons.getComponentCount() + 1, buttonBuild / 1e6, canvasBuild / 1e6,
+                buttonHeap / 1024, canvasHeap / 1024);
+        System.out.printf("  full repaint: buttons %.1f us, canvas %.1f us; one dirty cell: button %.1f us, canvas %.1f us%n",
+                buttonFrame / 1e3 / frames, canvasFrame / 1e3 / frames,
+                buttonCell / 1e3 / (frames * 20), canvasCell / 1e3 / (frames * 20));
+    }
+
+    private static JPanel buildButtons(Color[] balls, int size, int pixels) {
+        JPanel buttons = new JPanel(new GridLayout(size, size));
+        for (Color ball : balls) {
+            BallButton button = new BallButton();
+            button.setBallColor(ball);
+            buttons.add(button);
+        }
+        buttons.setSize(pixels, pixels);
+        buttons.doLayout();
+        return buttons;
+    }
+
+    private static BoardCanvas buildCanvas(Color[] balls, int size, int pixels) {
+        BoardCanvas canvas = new BoardCanvas(size, size);
+        for (int i = 0; i < balls.length; i++) {
+            canvas.setBallColor(i / size, i % size, balls[i]);
+        }
+        canvas.setSize(pixels, pixels);
+        canvas.doLayout();
+        return canvas;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    private static long time(int rounds, Runnable task) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            task.run();
+        }
+        return System.nanoTime() - start;
+    }
+}
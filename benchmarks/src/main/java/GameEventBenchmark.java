@@ -0,0 +1,44 @@
+import java.util.Random;
+
+public class GameEventBenchmark {
+    public static void main(String[] args) {
+        GameConfig config = args.length > 0 ? GameConfig.fromArgs(args) : GameConfig.DEFAULT;
+        int turns = 200_000;
+        for (int warmup = 0; warmup < 3; warmup++) {
+            play(config, turns, false);
+            play(config, turns, true);
+        }
+        play(config, turns, false);
+        play(config, turns, true);
+    }
+
+    private static void play(GameConfig config, int turns, boolean listening) {
+        GameEngine engine = new GameEngine(config, new GameRandom(1));
+        long[] counts = new long[3];
+        if (listening) {
+            engine.setListener(change -> {
+                counts[0]++;
+                counts[1] += change.isBoardReset() ? config.getCellCount() : change.getChangedCount();
+                if (change.isNextColorsChanged()) counts[2]++;
+            });
+        }
+        MovePolicy policy = MovePolicy.forName("random");
+        Random random = new Random(2);
+        int[] move = new int[4];
+        engine.startNewGame();
+        long start = System.nanoTime();
+        for (int i = 0; i < turns; i++) {
+            if (!policy.chooseMove(engine, random, move)
+                    || engine.playTurn(move[0], move[1], move[2], move[3]) == GameEngine.TurnResult.GAME_OVER) {
+                engine.startNewGame();
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        if (listening) {
+            System.out.printf("%s listener: %.0f ns/turn, %.2f change sets/turn, %.1f cells per set, %.2f next-color updates/turn%n",
+                    config, (double) nanos / turns, (double) counts[0] / turns, (double) counts[1] / counts[0], (double) counts[2] / turns);
+        } else {
+            System.out.printf("%s headless: %.0f ns/turn%n", config, (double) nanos / turns);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+
+public class GameServerLoadClient {
+    private final GameConfig config;
+    private final SocketAddress address;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    public GameServerLoadClient(GameConfig config, SocketAddress address) {
+        this.config = config;
+        this.address = address;
+    }
+
+    public static void main(String[] args) throws Exception {
+        GameConfig config = GameConfig.fromArgs(args);
+        int connections = (int) Simulator.longArg(args, "connections", 2000);
+        long warmupSeconds = Simulator.longArg(args, "warmup", 3);
+        long seconds = Simulator.longArg(args, "seconds", 10);
+        String target = Simulator.stringArg(args, "address", null);
+
+        GameServer server = null;
+        SocketAddress address;
+        if (target == null) {
+            server = new GameServer(config, new InetSocketAddress("localhost", 0));
+            server.serveInBackground();
+            address = server.getAddress();
+        } else {
+            address = GameServer.parseAddress(target);
+        }
+        System.out.println(connections + " connections to " + address + (server != null ? " (in-process server)" : "")
+                + ", " + (GameServer.isVirtual() ? "virtual" : "platform") + " threads");
+        new GameServerLoadClient(config, address).run(connections, warmupSeconds, seconds);
+        if (server != null) {
+            System.out.println("server: " + server.report());
+            server.close();
+        }
+    }
+
+    public void run(int connections, long warmupSeconds, long seconds) throws Exception {
+        CountDownLatch done = new CountDownLatch(connections);
+        ExecutorService executor = GameServer.newConnectionExecutor();
+        for (int i = 0; i < connections; i++) {
+            long seed = i;
+            executor.execute(() -> {
+                try {
+                    play(seed);
+                } catch (IOException e) {
+                    failures.increment();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        Thread.sleep(warmupSeconds * 1000);
+        latency.reset();
+        moves.reset();
+        games.reset();
+        measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000);
+        measuring = false;
+        long elapsed = System.nanoTime() - start;
+        long measuredMoves = moves.sum();
+        running = false;
+        done.await();
+        executor.shutdown();
+
+        System.out.printf("%d moves in %.1f s: %.0f moves/s sustained, %d games started%n",
+                measuredMoves, elapsed / 1e9, measuredMoves / (elapsed / 1e9), games.sum());
+        System.out.println("round trip: " + latency.snapshot());
+        System.out.println("mismatches " + mismatches.sum() + ", failed connections " + failures.sum());
+    }
+
+    private void play(long seed) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(address);
+             BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8))) {
+            if (address instanceof InetSocketAddress) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            GameEngine mirror = new GameEngine(config, new GameRandom());
+            MovePolicy policy = MovePolicy.forName("random");
+            Random random = new Random(seed);
+            int[] move = new int[4];
+            long gameSeed = seed << 20;
+            boolean playing = false;
+            while (running) {
+                if (!playing) {
+                    gameSeed++;
+                    send(in, out, "NEW " + gameSeed);
+                    mirror.startNewGame(gameSeed);
+                    if (measuring) games.increment();
+                    playing = true;
+                }
+                if (!policy.chooseMove(mirror, random, move)) {
+                    playing = false;
+                    continue;
+                }
+                long start = System.nanoTime();
+                String response = send(in, out, "MOVE " + move[0] + " " + move[1] + " " + move[2] + " " + move[3]);
+                long nanos = System.nanoTime() - start;
+                GameEngine.TurnResult result = mirror.playTurn(move[0], move[1], move[2], move[3]);
+                if (!response.equals("OK " + result + " " + mirror.getScore())) {
+                    mismatches.increment();
+                    playing = false;
+                }
+                if (result == GameEngine.TurnResult.GAME_OVER) playing = false;
+                if (measuring) {
+                    latency.record(nanos);
+                    moves.increment();
+                }
+            }
+            send(in, out, "QUIT");
+        }
+    }
+
+    private static String send(BufferedReader in, Writer out, String command) throws IOException {
+        out.write(command);
+        out.write('\n');
+        out.flush();
+        String response = in.readLine();
+        if (response == null) throw new EOFException("Server closed the connection");
+        return response;
+    }
+}
@@ -0,0 +1,65 @@
+import java.io.File;
+import java.util.Random;
+
+public class JournalBenchmark {
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int replays = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+
+        File file = File.createTempFile("color-lines-journal", ".dat");
+        try (MoveJournal journal = new MoveJournal(file)) {
+            for (int warmup = 0; warmup < 3; warmup++) {
+                play(null, games / 4);
+                play(journal, games / 4);
+            }
+
+            long start = System.nanoTime();
+            long plainMoves = play(null, games);
+            long plainNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long journaledMoves = play(journal, games);
+            long journaledNanos = System.nanoTime() - start;
+
+            System.out.printf("%d games: %.0f ns/move without journal, %.0f ns/move with journal (%d moves each)%n",
+                    games, (double) plainNanos / plainMoves, (double) journaledNanos / journaledMoves, journaledMoves);
+            journal.force();
+            System.out.printf("last game: %d journal bytes%n", journal.size());
+
+            GameEngine engine = new GameEngine();
+            long moves = 0;
+            for (int i = 0; i < replays / 4; i++) {
+                moves += MoveJournal.replay(file, engine);
+            }
+            moves = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < replays; i++) {
+                moves += MoveJournal.replay(file, engine);
+            }
+            long replayNanos = System.nanoTime() - start;
+            System.out.printf("replay: %.1f us/game, %.0f moves/s including file open and map%n",
+                    replayNanos / 1e3 / replays, moves * 1e9 / replayNanos);
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static long play(MoveJournal journal, int games) {
+        GameEngine engine = new GameEngine(new Random(1));
+        engine.setRecorder(journal);
+        MovePolicy policy = MovePolicy.forName("random");
+        Random random = new Random(2);
+        int[] move = new int[4];
+        long moves = 0;
+        for (int game = 0; game < games; game++) {
+            engine.startNewGame();
+            if (journal != null) journal.reset(engine.snapshot());
+            while (policy.chooseMove(engine, random, move)) {
+                moves++;
+                if (engine.playTurn(move[0], move[1], move[2], move[3]) == GameEngine.TurnResult.GAME_OVER) break;
+                if (journal != null && journal.getMovesSinceCheckpoint() >= 50) journal.checkpoint(engine.snapshot());
+            }
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,99 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class LeaderboardBenchmark {
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        File file = File.createTempFile("leaderboard", ".dat");
+        File index = new File(file.getPath() + ".idx");
+        file.deleteOnExit();
+        index.deleteOnExit();
+
+        Random random = new Random(1);
+        List<Leaderboard.Entry> entries = new ArrayList<>(size);
+        int[] scores = new int[size];
+        for (int i = 0; i < size; i++) {
+            scores[i] = (int) Math.abs(random.nextGaussian() * 300);
+            entries.add(new Leaderboard.Entry("player" + random.nextInt(1000), scores[i], 50 + random.nextInt(500),
+                    random.nextInt(3_600_000), System.currentTimeMillis()));
+        }
+
+        long start = System.nanoTime();
+        try (Leaderboard leaderboard = new Leaderboard(file)) {
+            leaderboard.addAll(entries);
+            System.out.printf("bulk load %d records: %.0f ms%n", size, (System.nanoTime() - start) / 1e6);
+        }
+
+        index.delete();
+        start = System.nanoTime();
+        try (Leaderboard leaderboard = new Leaderboard(file)) {
+            System.out.printf("reopen with index rebuild: %.0f ms%n", (System.nanoTime() - start) / 1e6);
+        }
+
+        start = System.nanoTime();
+        try (Leaderboard leaderboard = new Leaderboard(file)) {
+            System.out.printf("reopen with index: %.2f ms, file %d MB + index %d MB%n", (System.nanoTime() - start) / 1e6,
+                    file.length() >> 20, index.length() >> 20);
+
+            int queries = 100_000;
+            for (int warmup = 0; warmup < 3; warmup++) {
+                ranks(leaderboard, random, queries);
+            }
+            start = System.nanoTime();
+            long checksum = ranks(leaderboard, random, queries);
+            System.out.printf("rankOf: %.0f ns/query (checksum %d)%n", (double) (System.nanoTime() - start) / queries, checksum);
+
+            start = System.nanoTime();
+            for (int i = 0; i < 1000; i++) {
+                leaderboard.top(10);
+            }
+            System.out.printf("top 10: %.1f us/query%n", (System.nanoTime() - start) / 1000 / 1e3);
+
+            int inserts = 1000;
+            start = System.nanoTime();
+            for (int i = 0; i < inserts; i++) {
+                leaderboard.add(new Leaderboard.Entry("insert", random.nextInt(1200), 100, 60_000, System.currentTimeMillis()));
+            }
+            System.out.printf("single insert at %d records: %.0f us%n", size, (System.nanoTime() - start) / inserts / 1e3);
+
+            int[] sorted = scores.clone();
+            Arrays.sort(sorted);
+            int probe = 450;
+            int expected = sorted.length - upperBound(sorted, probe) + 1;
+            int actual = leaderboard.rankOf(probe);
+            boolean ordered = true;
+            List<Leaderboard.Entry> top = leaderboard.top(1000);
+            for (int i = 1; i < top.size(); i++) {
+                ordered &= top.get(i - 1).score >= top.get(i).score;
+            }
+            System.out.println("rank check " + (actual >= expected ? "ok" : "MISMATCH " + actual + " vs " + expected)
+                    + ", order " + (ordered ? "ok" : "BROKEN"));
+        }
+    }
+
+    private static long ranks(Leaderboard leaderboard, Random random, int queries) {
+        long sum = 0;
+        for (int i = 0; i < queries; i++) {
+            sum += leaderboard.rankOf(random.nextInt(1200));
+        }
+        return sum;
+    }
+
+    private static int upperBound(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
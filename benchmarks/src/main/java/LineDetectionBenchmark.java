@@ -0,0 +1,115 @@
+import java.util.Arrays;
+import java.util.Random;
+
+public class LineDetectionBenchmark {
+    private static final int COLORS = GameConfig.DEFAULT.getColorCount();
+    private static final int CONNECT_COUNT = GameConfig.DEFAULT.getConnectCount();
+
+    private final int size;
+    private final byte[] cells;
+    private final LineDetector full;
+    private final IncrementalLineDetector incremental;
+    private final Random random;
+
+    public LineDetectionBenchmark(int size, long seed) {
+        this.size = size;
+        cells = new byte[size * size];
+        full = new LineDetector(size, size, COLORS, CONNECT_COUNT);
+        incremental = new IncrementalLineDetector(cells, size, size, CONNECT_COUNT);
+        random = new Random(seed);
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray() : new int[]{9, 50, 200, 1000};
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+
+        for (int size : sizes) {
+            LineDetectionBenchmark bench = new LineDetectionBenchmark(size, size);
+            bench.run((int) Math.max(200, Math.min(rounds, rounds * 2500L / (size * size))));
+        }
+    }
+
+    private void run(int rounds) {
+        fillWithoutLines(0.5, COLORS);
+        int[] changed = new int[1];
+        int[] targets = new int[rounds];
+        int[] colors = new int[rounds];
+        for (int i = 0; i < rounds; i++) {
+            targets[i] = randomEmptyCell();
+            colors[i] = random.nextInt(COLORS);
+        }
+
+        long sink = 0;
+        for (int warmup = 0; warmup < 2; warmup++) {
+            sink += timeFull(targets, colors) + timeIncremental(targets, colors, changed);
+        }
+        long fullNanos = timeFull(targets, colors);
+        long incrementalNanos = timeIncremental(targets, colors, changed);
+
+        System.out.printf("%dx%d: full scan %.1f ns/op, incremental %.1f ns/op, speedup %.1fx (%d)%n",
+                size, size, (double) fullNanos / rounds, (double) incrementalNanos / rounds,
+                (double) fullNanos / Math.max(1, incrementalNanos), sink & 1);
+    }
+
+    private long timeFull(int[] targets, int[] colors) {
+        long start = System.nanoTime();
+        for (int i = 0; i < targets.length; i++) {
+            put(targets[i], colors[i]);
+            full.detect();
+            put(targets[i], GameEngine.EMPTY);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long timeIncremental(int[] targets, int[] colors, int[] changed) {
+        long start = System.nanoTime();
+        for (int i = 0; i < targets.length; i++) {
+            put(targets[i], colors[i]);
+            changed[0] = targets[i];
+            incremental.detect(changed, 1);
+            put(targets[i], GameEngine.EMPTY);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void fillWithoutLines(double fill, int colors) {
+        Arrays.fill(cells, GameEngine.EMPTY);
+        full.clear();
+        for (int i = 0; i < cells.length; i++) {
+            if (random.nextDouble() < fill) {
+                put(i, random.nextInt(colors));
+            }
+        }
+        while (full.detect() > 0) {
+            long[] mask = full.getClearMask();
+            for (int i = 0; i < cells.length; i++) {
+                if (isSet(mask, i)) put(i, GameEngine.EMPTY);
+            }
+        }
+    }
+
+    private int randomEmptyCell() {
+        for (int attempt = 0; attempt < cells.length * 4; attempt++) {
+            int index = random.nextInt(cells.length);
+            if (cells[index] == GameEngine.EMPTY) return index;
+        }
+        return -1;
+    }
+
+    private void put(int index, int color) {
+        int row = index / size;
+        int col = index % size;
+        if (cells[index] != GameEngine.EMPTY) {
+            full.unset(row, col, cells[index]);
+        }
+        if (color != GameEngine.EMPTY) {
+            full.set(row, col, color);
+        }
+        cells[index] = (byte) color;
+    }
+
+    private boolean isSet(long[] mask, int index) {
+        int bit = (index / size) * full.getStride() + index % size;
+        return (mask[bit >>> 6] & (1L << bit)) != 0;
+    }
+}
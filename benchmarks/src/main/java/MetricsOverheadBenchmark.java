@@ -0,0 +1,41 @@
+import java.util.Random;
+
+public class MetricsOverheadBenchmark {
+    public static void main(String[] args) {
+        GameConfig config = args.length > 0 ? GameConfig.fromArgs(args) : GameConfig.DEFAULT;
+        int turns = 200_000;
+        GameMetrics metrics = new GameMetrics();
+        for (int warmup = 0; warmup < 3; warmup++) {
+            play(config, turns, null);
+            play(config, turns, metrics);
+        }
+        metrics.reset();
+        double disabled = play(config, turns, null);
+        double enabled = play(config, turns, metrics);
+        System.out.printf("%s: %.0f ns/turn disabled, %.0f ns/turn enabled (%+.1f%%)%n",
+                config, disabled, enabled, (enabled / disabled - 1) * 100);
+        System.out.print(metrics.getReport());
+    }
+
+    private static double play(GameConfig config, int turns, GameMetrics metrics) {
+        GameEngine engine = new GameEngine(config, new GameRandom(1));
+        engine.setMetrics(metrics);
+        MovePolicy policy = MovePolicy.forName("random");
+        Random random = new Random(2);
+        int[] move = new int[4];
+        int[] path = new int[config.getCellCount()];
+        engine.startNewGame();
+        long start = System.nanoTime();
+        for (int i = 0; i < turns; i++) {
+            if (!policy.chooseMove(engine, random, move)) {
+                engine.startNewGame();
+                continue;
+            }
+            engine.findPath(move[0], move[1], move[2], move[3], path);
+            if (engine.playTurn(move[0], move[1], move[2], move[3]) == GameEngine.TurnResult.GAME_OVER) {
+                engine.startNewGame();
+            }
+        }
+        return (double) (System.nanoTime() - start) / turns;
+    }
+}
@@ -0,0 +1,102 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PackedBoardStoreBenchmark {
+    public static void main(String[] args) throws Exception {
+        GameConfig config = args.length > 0 ? GameConfig.fromArgs(args) : GameConfig.DEFAULT;
+        int boards = (int) Simulator.longArg(args, "boards", 5_000_000);
+        int heapSample = 200_000;
+
+        GameEngine engine = new GameEngine(config, new GameRandom(1));
+        MovePolicy policy = MovePolicy.forName("random");
+        Random random = new Random(2);
+        int[] move = new int[4];
+        PackedBoardStore store = new PackedBoardStore(config);
+        List<GameState> states = new ArrayList<>(heapSample);
+
+        System.gc();
+        long heapBefore = usedHeap();
+        engine.startNewGame(1);
+        long appendNanos = 0;
+        for (int i = 0; i < boards; i++) {
+            if (!policy.chooseMove(engine, random, move)
+                    || engine.playTurn(move[0], move[1], move[2], move[3]) == GameEngine.TurnResult.GAME_OVER) {
+                engine.startNewGame(i);
+            }
+            long start = System.nanoTime();
+            store.append(engine);
+            appendNanos += System.nanoTime() - start;
+            if (i < heapSample) states.add(engine.snapshot());
+        }
+        System.gc();
+        long stateBytes = (usedHeap() - heapBefore) / heapSample;
+        System.out.printf("%s: %d boards, %d bits per cell, %d bytes per board (%d MB off-heap), GameState about %d bytes on heap%n",
+                config, store.size(), store.getBitsPerCell(), store.getRecordSize(), store.getMemoryBytes() >> 20, stateBytes);
+        System.out.printf("append: %.0f ns/board%n", (double) appendNanos / boards);
+
+        boolean same = true;
+        PackedBoardStore.Board board = store.get(0);
+        for (int i = 0; i < heapSample; i++) {
+            same &= equal(states.get(i), board.moveTo(i));
+        }
+        System.out.println("round trip matches GameState: " + same);
+
+        int reads = 2_000_000;
+        long checksum = 0;
+        for (int warmup = 0; warmup < 3; warmup++) {
+            checksum += scan(store, board, random, reads);
+        }
+        long start = System.nanoTime();
+        checksum += scan(store, board, random, reads);
+        System.out.printf("random full-board read: %.0f ns/board (checksum %d)%n", (double) (System.nanoTime() - start) / reads, checksum);
+
+        File file = File.createTempFile("boards", ".dat");
+        file.deleteOnExit();
+        start = System.nanoTime();
+        store.dump(file);
+        System.out.printf("dump: %.0f ms, %d MB%n", (System.nanoTime() - start) / 1e6, file.length() >> 20);
+        start = System.nanoTime();
+        PackedBoardStore loaded = PackedBoardStore.load(file);
+        System.out.printf("load: %.1f ms%n", (System.nanoTime() - start) / 1e6);
+        PackedBoardStore.Board copy = loaded.get(0);
+        same = loaded.size() == store.size();
+        for (int i = 0; i < store.size() && same; i++) {
+            same = equal(board.moveTo(i), copy.moveTo(i));
+        }
+        System.out.println("loaded store matches: " + same);
+    }
+
+    private static long scan(PackedBoardStore store, PackedBoardStore.Board board, Random random, int reads) {
+        long sum = 0;
+        for (int i = 0; i < reads; i++) {
+            board.moveTo(random.nextInt(store.size()));
+            for (int row = 0; row < board.getHeight(); row++) {
+                for (int col = 0; col < board.getWidth(); col++) {
+                    sum += board.getColor(row, col);
+                }
+            }
+            sum += board.getScore();
+        }
+        return sum;
+    }
+
+    private static boolean equal(BoardView a, BoardView b) {
+        if (a.getScore() != b.getScore() || a.getNextColorCount() != b.getNextColorCount()) return false;
+        for (int i = 0; i < a.getNextColorCount(); i++) {
+            if (a.getNextColor(i) != b.getNextColor(i)) return false;
+        }
+        for (int row = 0; row < a.getHeight(); row++) {
+            for (int col = 0; col < a.getWidth(); col++) {
+                if (a.getColor(row, col) != b.getColor(row, col)) return false;
+            }
+        }
+        return true;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
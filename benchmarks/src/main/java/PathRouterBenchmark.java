@@ -0,0 +1,117 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.Random;
+
+public class PathRouterBenchmark {
+    private static final int SIZE = GameConfig.DEFAULT.getWidth();
+
+    private final byte[] cells = new byte[SIZE * SIZE];
+    private final PathRouter router = new PathRouter(cells, SIZE, SIZE);
+    private final int[] path = new int[SIZE * SIZE];
+    private final Random random;
+
+    public PathRouterBenchmark(long seed) {
+        random = new Random(seed);
+    }
+
+    public static void main(String[] args) {
+        double[] fills = args.length > 0 ? Arrays.stream(args[0].split(",")).mapToDouble(Double::parseDouble).toArray() : new double[]{0.5, 0.7, 0.85, 0.95};
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+
+        PathRouterBenchmark bench = new PathRouterBenchmark(42);
+        for (double fill : fills) {
+            bench.run(fill, queries);
+        }
+    }
+
+    private void run(double fill, int queries) {
+        Arrays.fill(cells, GameEngine.EMPTY);
+        for (int i = 0; i < cells.length; i++) {
+            if (random.nextDouble() < fill) cells[i] = (byte) random.nextInt(GameConfig.DEFAULT.getColorCount());
+        }
+        int[] from = new int[queries];
+        int[] to = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            from[i] = randomCell(false);
+            to[i] = randomCell(true);
+        }
+
+        long sink = 0;
+        for (int warmup = 0; warmup < 3; warmup++) {
+            sink += runLegacy(from, to) + runRouter(from, to);
+        }
+
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        sink += runLegacy(from, to);
+        long legacyNanos = System.nanoTime() - start;
+        long legacyBytes = allocatedBytes() - allocated;
+
+        allocated = allocatedBytes();
+        start = System.nanoTime();
+        sink += runRouter(from, to);
+        long routerNanos = System.nanoTime() - start;
+        long routerBytes = allocatedBytes() - allocated;
+
+        System.out.printf("fill %.2f: hasPath %.1f ns/op %.1f B/op, router %.1f ns/op %.1f B/op (%d)%n",
+                fill, (double) legacyNanos / queries, (double) legacyBytes / queries,
+                (double) routerNanos / queries, (double) routerBytes / queries, sink & 1);
+    }
+
+    private long runLegacy(int[] from, int[] to) {
+        long found = 0;
+        for (int i = 0; i < from.length; i++) {
+            if (hasPath(from[i] / SIZE, from[i] % SIZE, to[i] / SIZE, to[i] % SIZE)) found++;
+        }
+        return found;
+    }
+
+    private long runRouter(int[] from, int[] to) {
+        long length = 0;
+        for (int i = 0; i < from.length; i++) {
+            length += router.findPath(from[i], to[i], path);
+        }
+        return length;
+    }
+
+    private boolean hasPath(int fromRow, int fromCol, int toRow, int toCol) {
+        boolean[][] visited = new boolean[SIZE][SIZE];
+        Queue<int[]> queue = new LinkedList<>();
+        queue.add(new int[]{fromRow, fromCol});
+        visited[fromRow][fromCol] = true;
+
+        int[] rowDir = {-1, 1, 0, 0};
+        int[] colDir = {0, 0, -1, 1};
+
+        while (!queue.isEmpty()) {
+            int[] current = queue.poll();
+            if (current[0] == toRow && current[1] == toCol) {
+                return true;
+            }
+            for (int i = 0; i < 4; i++) {
+                int newRow = current[0] + rowDir[i];
+                int newCol = current[1] + colDir[i];
+                if (newRow >= 0 && newRow < SIZE && newCol >= 0 && newCol < SIZE
+                        && !visited[newRow][newCol] && cells[newRow * SIZE + newCol] == GameEngine.EMPTY) {
+                    visited[newRow][newCol] = true;
+                    queue.add(new int[]{newRow, newCol});
+                }
+            }
+        }
+        return false;
+    }
+
+    private int randomCell(boolean empty) {
+        for (int attempt = 0; attempt < 10000; attempt++) {
+            int index = random.nextInt(cells.length);
+            if ((cells[index] == GameEngine.EMPTY) == empty) return index;
+        }
+        return 0;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
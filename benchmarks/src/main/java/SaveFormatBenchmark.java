@@ -0,0 +1,120 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+public class SaveFormatBenchmark {
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length > 0 ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray() : new int[]{9, 50, 200, 1000};
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        File legacyFile = File.createTempFile("color-lines-legacy", ".dat");
+        File binaryFile = File.createTempFile("color-lines-binary", ".dat");
+        try {
+            for (int size : sizes) {
+                run(size, Math.max(5, (int) ((long) rounds * 81 / (size * size))), legacyFile, binaryFile);
+            }
+        } finally {
+            legacyFile.delete();
+            binaryFile.delete();
+        }
+    }
+
+    private static void run(int size, int rounds, File legacyFile, File binaryFile) throws Exception {
+        GameState state = randomState(size, new Random(size));
+
+        long firstLegacyLoad = time(() -> {
+            writeLegacy(state, legacyFile);
+            readLegacy(legacyFile);
+        });
+        long firstBinaryLoad = time(() -> {
+            writeBinary(state, binaryFile);
+            SaveFormat.read(binaryFile);
+        });
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            for (int i = 0; i < rounds; i++) {
+                writeLegacy(state, legacyFile);
+                readLegacy(legacyFile);
+                writeBinary(state, binaryFile);
+                SaveFormat.read(binaryFile);
+            }
+        }
+
+        long legacyWrite = time(() -> {
+            for (int i = 0; i < rounds; i++) writeLegacy(state, legacyFile);
+        });
+        long legacyRead = time(() -> {
+            for (int i = 0; i < rounds; i++) readLegacy(legacyFile);
+        });
+        long binaryWrite = time(() -> {
+            for (int i = 0; i < rounds; i++) writeBinary(state, binaryFile);
+        });
+        long binaryRead = time(() -> {
+            for (int i = 0; i < rounds; i++) SaveFormat.read(binaryFile);
+        });
+        long migrated = time(() -> {
+            for (int i = 0; i < rounds; i++) SaveFormat.read(legacyFile);
+        });
+
+        System.out.printf("%dx%d: size legacy %d B, binary %d B (%.1fx smaller)%n",
+                size, size, legacyFile.length(), binaryFile.length(), (double) legacyFile.length() / binaryFile.length());
+        System.out.printf("  first load: legacy %.1f us, binary %.1f us%n", firstLegacyLoad / 1e3, firstBinaryLoad / 1e3);
+        System.out.printf("  write: legacy %.1f us, binary %.1f us; read: legacy %.1f us, binary %.1f us, legacy via migration %.1f us%n",
+                legacyWrite / 1e3 / rounds, binaryWrite / 1e3 / rounds,
+                legacyRead / 1e3 / rounds, binaryRead / 1e3 / rounds, migrated / 1e3 / rounds);
+    }
+
+    private static GameState randomState(int size, Random random) {
+        GameState state = new GameState(size, size, GameConfig.DEFAULT.getSpawnCount());
+        for (int[] row : state.boardColors) {
+            for (int col = 0; col < size; col++) {
+                row[col] = random.nextInt(3) == 0 ? GameEngine.EMPTY : random.nextInt(GameConfig.DEFAULT.getColorCount());
+            }
+        }
+        for (int i = 0; i < state.nextColors.length; i++) {
+            state.nextColors[i] = random.nextInt(GameConfig.DEFAULT.getColorCount());
+        }
+        state.score = random.nextInt(10000);
+        state.highScore = state.score + random.nextInt(10000);
+        return state;
+    }
+
+    private static void writeLegacy(GameState state, File file) throws IOException {
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+            out.writeObject(state);
+        }
+    }
+
+    private static GameState readLegacy(File file) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
+            return (GameState) in.readObject();
+        }
+    }
+
+    private static void writeBinary(GameState state, File file) throws IOException {
+        ByteBuffer bytes = SaveFormat.encode(state);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    private static long time(Task task) throws Exception {
+        long start = System.nanoTime();
+        task.run();
+        return System.nanoTime() - start;
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,73 @@
+import java.util.Arrays;
+import java.util.Random;
+
+public class ScalingBenchmark {
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray() : new int[]{9, 50, 200, 1000};
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        double fill = args.length > 2 ? Double.parseDouble(args[2]) : 0.4;
+
+        for (int size : sizes) {
+            run(new GameConfig(size, size, 5, 7, 3), moves, fill);
+        }
+    }
+
+    private static void run(GameConfig config, int moves, double fill) {
+        Random random = new Random(config.getWidth());
+        GameEngine engine = new GameEngine(config, new Random(1));
+        prefill(engine, random, fill);
+
+        long[] latencies = new long[moves];
+        int width = config.getWidth();
+        int minEmpty = (int) (config.getCellCount() * (1 - fill) / 2);
+        int restarts = 0;
+        for (int i = 0; i < moves + moves / 4; i++) {
+            int from = -1, to = -1;
+            for (int attempt = 0; attempt < 1000 && from < 0; attempt++) {
+                int a = random.nextInt(config.getCellCount());
+                int b = random.nextInt(config.getCellCount());
+                if (engine.canMove(a / width, a % width, b / width, b % width)) {
+                    from = a;
+                    to = b;
+                }
+            }
+            if (from < 0 || engine.countEmpty() < minEmpty) {
+                restarts++;
+                prefill(engine, random, fill);
+                i--;
+                continue;
+            }
+
+            long start = System.nanoTime();
+            GameEngine.TurnResult result = engine.playTurn(from / width, from % width, to / width, to % width);
+            long elapsed = System.nanoTime() - start;
+            if (i >= moves / 4) {
+                latencies[i - moves / 4] = elapsed;
+            }
+            if (result == GameEngine.TurnResult.GAME_OVER) {
+                restarts++;
+                prefill(engine, random, fill);
+            }
+        }
+
+        Arrays.sort(latencies);
+        long total = 0;
+        for (long latency : latencies) total += latency;
+        System.out.printf("%dx%d (%d cells): mean %.0f ns, p50 %d ns, p99 %d ns, max %d ns per move, %d restarts%n",
+                config.getWidth(), config.getHeight(), config.getCellCount(), (double) total / moves,
+                latencies[moves / 2], latencies[(int) (moves * 0.99)], latencies[moves - 1], restarts);
+    }
+
+    private static void prefill(GameEngine engine, Random random, double fill) {
+        engine.clearBoard();
+        engine.beginBulkUpdate();
+        int[] colors = new int[(int) (engine.getConfig().getCellCount() * fill)];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = random.nextInt(engine.getConfig().getColorCount());
+        }
+        engine.spawn(colors);
+        engine.clearLines();
+        engine.endBulkUpdate();
+        engine.generateNextColors();
+    }
+}
@@ -0,0 +1,71 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class StartupBenchmark {
+    public static void main(String[] args) throws Exception {
+        File directory = Files.createTempDirectory("color-lines-startup").toFile();
+        System.setProperty("user.dir", directory.getPath());
+        System.setProperty("java.awt.headless", "true");
+        GameConfig config = args.length > 0 ? GameConfig.fromArgs(args) : GameConfig.DEFAULT;
+        prepareFiles(config, 2_000);
+
+        for (int round = 0; round < 5; round++) {
+            new File(directory, "leaderboard.dat.idx").delete();
+            BallSprites.clear();
+            long start = System.nanoTime();
+            long signature = sequential(config);
+            long sequentialNanos = System.nanoTime() - start;
+
+            new File(directory, "leaderboard.dat.idx").delete();
+            BallSprites.clear();
+            start = System.nanoTime();
+            GameBoard board = new StartupLoader(config).getReady().join();
+            long parallelNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            board.getPanel();
+            long populateNanos = System.nanoTime() - start;
+            boolean same = signature == board.getEngine().positionHash() + board.getScoreManager().getHighScore();
+            System.out.printf("round %d: sequential %.1f ms, parallel %.1f ms + populate %.2f ms on the EDT, same state %b%n",
+                    round, sequentialNanos / 1e6, parallelNanos / 1e6, populateNanos / 1e6, same);
+        }
+        System.out.print(StartupTimer.report());
+    }
+
+    private static long sequential(GameConfig config) {
+        ScoreManager scoreManager = new ScoreManager();
+        GameBoard board = new GameBoard(scoreManager, config);
+        if (!board.loadState()) {
+            board.startNewGame();
+        }
+        int size = BoardCanvas.ballSize(600, 600, config.getWidth(), config.getHeight());
+        BallSprites.prepare(ColorManager.createPalette(config.getColorCount()), size, null);
+        BallSprites.prepare(ColorManager.createPalette(config.getColorCount()), 40, null);
+        return board.getEngine().positionHash() + scoreManager.getHighScore();
+    }
+
+    private static void prepareFiles(GameConfig config, int games) throws IOException {
+        Random random = new Random(1);
+        List<Leaderboard.Entry> entries = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            entries.add(new Leaderboard.Entry("player" + random.nextInt(100), random.nextInt(1000), 100, 60_000, i));
+        }
+        try (Leaderboard leaderboard = new Leaderboard(ScoreManager.defaultLeaderboardFile())) {
+            leaderboard.addAll(entries);
+        }
+
+        GameBoard board = new GameBoard(new ScoreManager(), config);
+        board.startNewGame(7);
+        GameEngine engine = board.getEngine();
+        MovePolicy policy = MovePolicy.forName("greedy");
+        int[] move = new int[4];
+        for (int turn = 0; turn < 200 && policy.chooseMove(engine, random, move); turn++) {
+            if (engine.playTurn(move[0], move[1], move[2], move[3]) == GameEngine.TurnResult.GAME_OVER) break;
+        }
+        board.saveState();
+        board.flushSave();
+    }
+}
@@ -0,0 +1,43 @@
+import java.util.Random;
+
+public class UndoBenchmark {
+    public static void main(String[] args) {
+        GameConfig config = args.length > 0 ? GameConfig.fromArgs(args) : new GameConfig(200, 200, 5, 7, 3);
+        int target = 10000;
+
+        GameEngine engine = new GameEngine(config, new GameRandom(1));
+        engine.setHistoryEnabled(true);
+        engine.startNewGame();
+        MovePolicy policy = MovePolicy.forName("random");
+        Random random = new Random(2);
+        int[] move = new int[4];
+        for (long attempts = 0; engine.getUndoCount() < target && attempts < 100L * target; attempts++) {
+            if (!policy.chooseMove(engine, random, move)
+                    || engine.playTurn(move[0], move[1], move[2], move[3]) == GameEngine.TurnResult.GAME_OVER) {
+                engine.undoTo(Math.max(0, engine.getUndoCount() - 4));
+            }
+        }
+        int moves = engine.getUndoCount();
+        long hash = engine.positionHash();
+
+        for (int warmup = 0; warmup < 5; warmup++) {
+            engine.undoTo(0);
+            while (engine.redo()) {
+            }
+        }
+        long start = System.nanoTime();
+        engine.undoTo(0);
+        long undoNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        while (engine.redo()) {
+        }
+        long redoNanos = System.nanoTime() - start;
+
+        long historyBytes = engine.getHistory().getMemoryUsage();
+        long snapshotBytes = (long) moves * config.getCellCount();
+        System.out.printf("%s: %d moves of history in %d KB (%.1f B/move), board copies would take %d KB%n",
+                config, moves, historyBytes / 1024, (double) historyBytes / moves, snapshotBytes / 1024);
+        System.out.printf("undo %.0f ns/move, redo %.0f ns/move, round trip %s%n",
+                (double) undoNanos / moves, (double) redoNanos / moves, engine.positionHash() == hash ? "exact" : "MISMATCH");
+    }
+}
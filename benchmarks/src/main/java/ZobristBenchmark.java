@@ -0,0 +1,89 @@
+import java.util.Arrays;
+import java.util.Random;
+
+public class ZobristBenchmark {
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray() : new int[]{9, 50, 200};
+        int updates = args.length > 1 ? Integer.parseInt(args[1]) : 2000000;
+
+        for (int size : sizes) {
+            run(size, updates);
+        }
+    }
+
+    private static void run(int size, int updates) {
+        Random random = new Random(size);
+        int colors = GameConfig.DEFAULT.getColorCount();
+        byte[] cells = new byte[size * size];
+        Arrays.fill(cells, GameEngine.EMPTY);
+        ZobristHash hash = new ZobristHash(size, size);
+        for (int i = 0; i < cells.length; i++) {
+            if (random.nextBoolean()) {
+                cells[i] = (byte) random.nextInt(colors);
+                hash.toggle(i / size, i % size, cells[i]);
+            }
+        }
+        int[] from = new int[4096];
+        int[] to = new int[4096];
+        for (int i = 0; i < from.length; i++) {
+            from[i] = random.nextInt(cells.length);
+            to[i] = random.nextInt(cells.length);
+        }
+        int recomputes = Math.max(1000, (int) Math.min(updates, 200000000L / cells.length));
+
+        long sink = 0;
+        for (int warmup = 0; warmup < 3; warmup++) {
+            sink += incremental(hash, cells, from, to, updates) + recompute(cells, recomputes) + canonical(hash, from, size, updates);
+        }
+
+        long start = System.nanoTime();
+        sink += incremental(hash, cells, from, to, updates);
+        long incrementalNanos = System.nanoTime() - start;
+        boolean consistent = ZobristHash.recompute(cells) == hash.get();
+
+        start = System.nanoTime();
+        sink += canonical(hash, from, size, updates);
+        long canonicalNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        sink += recompute(cells, recomputes);
+        long recomputeNanos = System.nanoTime() - start;
+
+        System.out.printf("%dx%d: incremental move %.1f ns/op, move+canonical %.1f ns/op, recompute %.1f ns/op (%s, %d)%n",
+                size, size, (double) incrementalNanos / updates, (double) canonicalNanos / updates,
+                (double) recomputeNanos / recomputes, consistent ? "consistent" : "MISMATCH", sink & 1);
+    }
+
+    private static long incremental(ZobristHash hash, byte[] cells, int[] from, int[] to, int updates) {
+        int size = (int) Math.round(Math.sqrt(cells.length));
+        for (int i = 0; i < updates; i++) {
+            int a = from[i & 4095];
+            int b = to[i & 4095];
+            if (cells[a] == GameEngine.EMPTY || cells[b] != GameEngine.EMPTY) continue;
+            hash.toggle(a / size, a % size, cells[a]);
+            hash.toggle(b / size, b % size, cells[a]);
+            cells[b] = cells[a];
+            cells[a] = GameEngine.EMPTY;
+        }
+        return hash.get();
+    }
+
+    private static long canonical(ZobristHash hash, int[] cells, int size, int count) {
+        long sink = 0;
+        for (int i = 0; i < count; i++) {
+            int cell = cells[i & 4095];
+            hash.toggle(cell / size, cell % size, 0);
+            sink += hash.getCanonical();
+            hash.toggle(cell / size, cell % size, 0);
+        }
+        return sink;
+    }
+
+    private static long recompute(byte[] cells, int count) {
+        long sink = 0;
+        for (int i = 0; i < count; i++) {
+            sink += ZobristHash.recompute(cells) + i;
+        }
+        return sink;
+    }
+}
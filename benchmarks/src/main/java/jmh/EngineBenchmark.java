@@ -0,0 +1,52 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class EngineBenchmark {
+    @Param({"9", "50", "200"})
+    public int size;
+
+    @Param({"0.3", "0.6", "0.9"})
+    public double fill;
+
+    private GameFixture fixture;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = GameFixture.create();
+        fixture.setUp(size, fill, 42);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.tearDown();
+    }
+
+    @Benchmark
+    public boolean hasPath() {
+        return fixture.hasPath();
+    }
+
+    @Benchmark
+    public int checkForConnects() {
+        return fixture.checkForConnects();
+    }
+
+    @Benchmark
+    public long detectCrossPatterns() {
+        return fixture.detectCrossPatterns();
+    }
+
+    @Benchmark
+    public boolean addNextBallsAndCheck() {
+        return fixture.addNextBallsAndCheck();
+    }
+}
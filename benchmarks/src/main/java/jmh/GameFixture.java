@@ -0,0 +1,29 @@
+package jmh;
+
+public interface GameFixture {
+    void setUp(int size, double fill, long seed) throws Exception;
+
+    boolean hasPath();
+
+    int checkForConnects();
+
+    long detectCrossPatterns();
+
+    boolean addNextBallsAndCheck();
+
+    int writeSave() throws Exception;
+
+    Object readSave() throws Exception;
+
+    int recoverJournal() throws Exception;
+
+    void setUpPaint(int boardSize, int cellSize, boolean selected, boolean fullRepaint);
+
+    void paintBoard();
+
+    void tearDown();
+
+    static GameFixture create() throws ReflectiveOperationException {
+        return (GameFixture) Class.forName("BenchmarkFixture").getDeclaredConstructor().newInstance();
+    }
+}
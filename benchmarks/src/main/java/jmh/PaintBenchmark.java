@@ -0,0 +1,43 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark {
+    @Param({"9", "30"})
+    public int boardSize;
+
+    @Param({"32", "64"})
+    public int cellSize;
+
+    @Param({"false", "true"})
+    public boolean selected;
+
+    @Param({"false", "true"})
+    public boolean fullRepaint;
+
+    private GameFixture fixture;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = GameFixture.create();
+        fixture.setUpPaint(boardSize, cellSize, selected, fullRepaint);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.tearDown();
+    }
+
+    @Benchmark
+    public void paintComponent() {
+        fixture.paintBoard();
+    }
+}
@@ -0,0 +1,147 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AnimationClock {
+    public static final long FRAME_NANOS = 16_666_667L;
+
+    public interface Animation {
+        boolean tick(long now);
+    }
+
+    private static AnimationClock defaultClock;
+
+    private final long frameNanos;
+    private final Timer timer;
+    private final List<Animation> animations = new ArrayList<>();
+    private final List<Animation> running = new ArrayList<>();
+    private final Map<Component, Rectangle> dirtyRegions = new IdentityHashMap<>();
+    private boolean inFrame;
+    private long lastFrameStart;
+    private long frames;
+    private long droppedFrames;
+    private long totalFrameNanos;
+    private long maxFrameNanos;
+    private long lastFrameNanos;
+
+    public AnimationClock() {
+        this(FRAME_NANOS);
+    }
+
+    public AnimationClock(long frameNanos) {
+        this.frameNanos = frameNanos;
+        timer = new Timer((int) Math.max(1, frameNanos / 1_000_000), e -> frame());
+        timer.setCoalesce(true);
+    }
+
+    public static synchronized AnimationClock getDefault() {
+        if (defaultClock == null) {
+            defaultClock = new AnimationClock();
+        }
+        return defaultClock;
+    }
+
+    public void start(Animation animation) {
+        if (!animations.contains(animation)) {
+            animations.add(animation);
+        }
+        if (!timer.isRunning()) {
+            lastFrameStart = 0;
+            timer.start();
+        }
+    }
+
+    public void stop(Animation animation) {
+        animations.remove(animation);
+    }
+
+    public boolean isRunning(Animation animation) {
+        return animations.contains(animation);
+    }
+
+    public boolean isIdle() {
+        return !timer.isRunning();
+    }
+
+    public void repaint(Component component, int x, int y, int width, int height) {
+        if (!inFrame && !timer.isRunning()) {
+            component.repaint(x, y, width, height);
+            return;
+        }
+        Rectangle region = dirtyRegions.get(component);
+        if (region == null) {
+            dirtyRegions.put(component, new Rectangle(x, y, width, height));
+        } else {
+            region.add(new Rectangle(x, y, width, height));
+        }
+    }
+
+    public void frame() {
+        long start = System.nanoTime();
+        if (lastFrameStart != 0 && start - lastFrameStart > frameNanos * 3 / 2) {
+            droppedFrames += (start - lastFrameStart) / frameNanos - 1;
+        }
+        lastFrameStart = start;
+
+        inFrame = true;
+        try {
+            running.clear();
+            running.addAll(animations);
+            for (Animation animation : running) {
+                if (animations.contains(animation) && !animation.tick(start)) {
+                    animations.remove(animation);
+                }
+            }
+            for (Map.Entry<Component, Rectangle> entry : dirtyRegions.entrySet()) {
+                Rectangle region = entry.getValue();
+                entry.getKey().repaint(region.x, region.y, region.width, region.height);
+            }
+            dirtyRegions.clear();
+        } finally {
+            inFrame = false;
+        }
+        if (animations.isEmpty()) {
+            timer.stop();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        frames++;
+        totalFrameNanos += elapsed;
+        lastFrameNanos = elapsed;
+        maxFrameNanos = Math.max(maxFrameNanos, elapsed);
+    }
+
+    public int getAnimationCount() {
+        return animations.size();
+    }
+
+    public long getFrameCount() {
+        return frames;
+    }
+
+    public long getDroppedFrameCount() {
+        return droppedFrames;
+    }
+
+    public long getLastFrameNanos() {
+        return lastFrameNanos;
+    }
+
+    public long getMaxFrameNanos() {
+        return maxFrameNanos;
+    }
+
+    public double getMeanFrameNanos() {
+        return frames == 0 ? 0 : (double) totalFrameNanos / frames;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d frames, %d dropped, %d running, frame time last %.2f ms, mean %.2f ms, max %.2f ms",
+                getFrameCount(), getDroppedFrameCount(), getAnimationCount(),
+                getLastFrameNanos() / 1e6, getMeanFrameNanos() / 1e6, getMaxFrameNanos() / 1e6);
+    }
+}
@@ -0,0 +1,147 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AutoSaver {
+    private static final long COALESCE_DELAY = 100;
+    private static final long FLUSH_TIMEOUT = 5000;
+
+    private final Path file;
+    private final Path tempFile;
+    private final ScheduledExecutorService executor;
+    private final AtomicReference<GameState> pending = new AtomicReference<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private volatile long lastNanos;
+    private final GameMetrics metrics = GameMetrics.get();
+
+    public AutoSaver(File file) {
+        this.file = file.toPath();
+        tempFile = this.file.resolveSibling(file.getName() + ".tmp");
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void save(GameState state) {
+        requests.increment();
+        pending.set(state);
+        if (scheduled.compareAndSet(false, true)) {
+            executor.schedule(this::drain, COALESCE_DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void flush() {
+        try {
+            executor.submit(() -> {
+                GameState state = pending.getAndSet(null);
+                if (state != null) {
+                    write(state);
+                }
+                return null;
+            }).get(FLUSH_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Failed to flush game state: " + e);
+        }
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getWriteCount() {
+        return writes.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    public long getLastLatencyNanos() {
+        return lastNanos;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanLatencyNanos() {
+        long count = writes.sum();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d saves requested, %d written, %d failed, latency last %.2f ms, mean %.2f ms, max %.2f ms",
+                getRequestCount(), getWriteCount(), getFailureCount(),
+                getLastLatencyNanos() / 1e6, getMeanLatencyNanos() / 1e6, getMaxLatencyNanos() / 1e6);
+    }
+
+    private void drain() {
+        scheduled.set(false);
+        GameState state = pending.getAndSet(null);
+        if (state != null) {
+            write(state);
+        }
+    }
+
+    private void write(GameState state) {
+        long start = System.nanoTime();
+        try {
+            int size = SaveFormat.write(tempFile.toFile(), state);
+            try {
+                Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            syncDirectory();
+            record(System.nanoTime() - start);
+            if (metrics != null) {
+                metrics.record(GameMetrics.Operation.SAVE, System.nanoTime() - start);
+                metrics.add(GameMetrics.Counter.SAVE_BYTES, size);
+            }
+        } catch (IOException e) {
+            failures.increment();
+            System.err.println("Failed to save game state: " + e.getMessage());
+        }
+    }
+
+    private void syncDirectory() {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory == null) return;
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not every platform can open a directory for syncing; the rename itself is still atomic.
+        }
+    }
+
+    private void record(long nanos) {
+        writes.increment();
+        totalNanos.add(nanos);
+        lastNanos = nanos;
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
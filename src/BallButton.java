@@ -4,37 +4,34 @@ import java.awt.*;
 public class BallButton extends JButton {
     private Color ballColor;
     private boolean isSelected;
-    private final Timer bounceTimer;
+    private boolean isReachable;
+    private boolean isHint;
+    private final AnimationClock clock = AnimationClock.getDefault();
+    private final AnimationClock.Animation bounce = this::bounce;
+    private long selectedSince;
     private int bounceOffset = 0;
-    private boolean bounceUp = false;
     private static final int MAX_BOUNCE_HEIGHT = 3;
-    private static final int BOUNCE_STEP = 1;
-    private static final int BOUNCE_DELAY = 25;
+    private static final long BOUNCE_STEP_NANOS = 25_000_000L;
+    private static final Color REACHABLE_COLOR = new Color(120, 200, 120, 70);
+    private static final Color HINT_COLOR = new Color(255, 200, 0, 200);
+    private static final BasicStroke HINT_STROKE = new BasicStroke(3.0f);
 
     public BallButton() {
         setContentAreaFilled(false);
         setBorderPainted(true);
         setBackground(Color.WHITE);
         ballColor = null;
+    }
 
-        bounceTimer = new Timer(BOUNCE_DELAY, e -> {
-            if (isSelected) {
-                if (bounceUp) {
-                    bounceOffset += BOUNCE_STEP;
-                    if (bounceOffset >= MAX_BOUNCE_HEIGHT) {
-                        bounceOffset = MAX_BOUNCE_HEIGHT;
-                        bounceUp = false;
-                    }
-                } else {
-                    bounceOffset -= BOUNCE_STEP;
-                    if (bounceOffset <= 0) {
-                        bounceOffset = 0;
-                        bounceUp = true;
-                    }
-                }
-                repaint();
-            }
-        });
+    private boolean bounce(long now) {
+        if (!isSelected) return false;
+        int phase = (int) ((now - selectedSince) / BOUNCE_STEP_NANOS % (2 * MAX_BOUNCE_HEIGHT));
+        int offset = phase <= MAX_BOUNCE_HEIGHT ? phase : 2 * MAX_BOUNCE_HEIGHT - phase;
+        if (offset != bounceOffset) {
+            bounceOffset = offset;
+            clock.repaint(this, 0, 0, getWidth(), getHeight());
+        }
+        return true;
     }
 
     public void setBallColor(Color color) {
@@ -50,23 +47,45 @@ public class BallButton extends JButton {
         this.isSelected = selected;
         if (selected) {
             bounceOffset = 0;
-            bounceUp = true;
-            bounceTimer.start();
+            selectedSince = System.nanoTime();
+            clock.start(bounce);
         } else {
-            bounceTimer.stop();
+            clock.stop(bounce);
             bounceOffset = 0;
         }
         repaint();
     }
 
+    public void setReachable(boolean reachable) {
+        if (this.isReachable != reachable) {
+            this.isReachable = reachable;
+            repaint();
+        }
+    }
+
+    public void setHint(boolean hint) {
+        if (this.isHint != hint) {
+            this.isHint = hint;
+            repaint();
+        }
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (ballColor != null) {
+        if (isReachable && ballColor == null) {
+            g.setColor(REACHABLE_COLOR);
+            g.fillRect(0, 0, getWidth(), getHeight());
+        }
+        if (isHint) {
             Graphics2D g2d = (Graphics2D) g.create();
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-            int size = Math.min(getWidth(), getHeight()) - 10;
+            g2d.setColor(HINT_COLOR);
+            g2d.setStroke(HINT_STROKE);
+            g2d.drawRect(2, 2, getWidth() - 5, getHeight() - 5);
+            g2d.dispose();
+        }
+        int size = BoardCanvas.ballSize(getWidth(), getHeight(), 1, 1);
+        if (ballColor != null && size > 0) {
             int x = (getWidth() - size) / 2;
             int y = (getHeight() - size) / 2;
 
@@ -74,19 +93,8 @@ public class BallButton extends JButton {
                 y -= bounceOffset;
             }
 
-            g2d.setColor(ballColor);
-            g2d.fillOval(x, y, size, size);
-
-            g2d.setColor(new Color(255, 255, 255, 100));
-            g2d.fillOval(x + size / 4, y + size / 4, size / 4, size / 4);
-
-            if (isSelected) {
-                g2d.setColor(new Color(255, 255, 255, 180));
-                g2d.setStroke(new BasicStroke(2.0f));
-                g2d.drawOval(x, y, size, size);
-            }
-
-            g2d.dispose();
+            Image sprite = BallSprites.get(ballColor, size, isSelected, getGraphicsConfiguration());
+            g.drawImage(sprite, x - BallSprites.PADDING, y - BallSprites.PADDING, null);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class BallSprites {
+    public static final int PADDING = 2;
+    private static final int MAX_SPRITES = 256;
+    private static final Color HIGHLIGHT_COLOR = new Color(255, 255, 255, 100);
+    private static final Color OUTLINE_COLOR = new Color(255, 255, 255, 180);
+    private static final BasicStroke OUTLINE_STROKE = new BasicStroke(2.0f);
+    private static final Map<Key, Image> sprites = new LinkedHashMap<>(MAX_SPRITES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Image> eldest) {
+            return size() > MAX_SPRITES;
+        }
+    };
+
+    private record Key(int rgb, int size, boolean selected, GraphicsConfiguration configuration) {
+    }
+
+    public static Image get(Color color, int size, boolean selected, GraphicsConfiguration configuration) {
+        Key key = new Key(color.getRGB(), size, selected, configuration);
+        synchronized (sprites) {
+            Image sprite = sprites.get(key);
+            if (sprite != null) {
+                return sprite;
+            }
+        }
+        Image sprite = render(color, size, selected, configuration);
+        synchronized (sprites) {
+            Image existing = sprites.putIfAbsent(key, sprite);
+            return existing != null ? existing : sprite;
+        }
+    }
+
+    public static void prepare(Color[] palette, int size, GraphicsConfiguration configuration) {
+        if (size <= 0) return;
+        for (Color color : palette) {
+            get(color, size, false, configuration);
+            get(color, size, true, configuration);
+        }
+    }
+
+    public static void clear() {
+        synchronized (sprites) {
+            sprites.clear();
+        }
+    }
+
+    public static int size() {
+        synchronized (sprites) {
+            return sprites.size();
+        }
+    }
+
+    private static Image render(Color color, int size, boolean selected, GraphicsConfiguration configuration) {
+        int extent = size + 2 * PADDING;
+        BufferedImage image = configuration != null
+                ? configuration.createCompatibleImage(extent, extent, Transparency.TRANSLUCENT)
+                : new BufferedImage(extent, extent, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        g2d.setColor(color);
+        g2d.fillOval(PADDING, PADDING, size, size);
+
+        g2d.setColor(HIGHLIGHT_COLOR);
+        g2d.fillOval(PADDING + size / 4, PADDING + size / 4, size / 4, size / 4);
+
+        if (selected) {
+            g2d.setColor(OUTLINE_COLOR);
+            g2d.setStroke(OUTLINE_STROKE);
+            g2d.drawOval(PADDING, PADDING, size, size);
+        }
+
+        g2d.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,297 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+public class BoardCanvas extends JPanel {
+    public interface CellListener {
+        void cellClicked(int row, int col);
+    }
+
+    private static final int MAX_BOUNCE_HEIGHT = 3;
+    private static final long BOUNCE_STEP_NANOS = 25_000_000L;
+    private static final long GROW_NANOS = 150_000_000L;
+    private static final long FADE_NANOS = 250_000_000L;
+    private static final float GROW_FROM = 0.3f;
+    private static final int BALL_MARGIN_DIVISOR = 6;
+    private static final int MIN_BALL_SIZE = 2;
+    private static final Color GRID_COLOR = new Color(184, 207, 229);
+    private static final Color REACHABLE_COLOR = new Color(120, 200, 120, 70);
+    private static final Color HINT_COLOR = new Color(255, 200, 0, 200);
+    private static final BasicStroke HINT_STROKE = new BasicStroke(3.0f);
+
+    private final int columns;
+    private final int rows;
+    private final Color[] balls;
+    private final boolean[] reachable;
+    private final boolean[] hints;
+    private final long[] growStarts;
+    private final long[] fadeStarts;
+    private final Color[] fadingBalls;
+    private final int[] effectCells;
+    private int effectCount;
+    private final AnimationClock clock;
+    private final GameMetrics metrics = GameMetrics.get();
+    private final AnimationClock.Animation bounce = this::bounce;
+    private final AnimationClock.Animation effects = this::effects;
+    private final Rectangle cellBounds = new Rectangle();
+    private int selected = -1;
+    private long selectedSince;
+    private int bounceOffset;
+    private CellListener cellListener;
+
+    public BoardCanvas(int columns, int rows) {
+        this(columns, rows, AnimationClock.getDefault());
+    }
+
+    public BoardCanvas(int columns, int rows, AnimationClock clock) {
+        this.columns = columns;
+        this.rows = rows;
+        this.clock = clock;
+        balls = new Color[columns * rows];
+        reachable = new boolean[columns * rows];
+        hints = new boolean[columns * rows];
+        growStarts = new long[columns * rows];
+        fadeStarts = new long[columns * rows];
+        fadingBalls = new Color[columns * rows];
+        effectCells = new int[columns * rows];
+        setBackground(Color.WHITE);
+        setOpaque(true);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e) || cellListener == null) return;
+                int cell = cellAt(e.getX(), e.getY());
+                if (cell >= 0) {
+                    cellListener.cellClicked(cell / columns, cell % columns);
+                }
+            }
+        });
+    }
+
+    public void setCellListener(CellListener listener) {
+        cellListener = listener;
+    }
+
+    public Color getBallColor(int row, int col) {
+        return balls[row * columns + col];
+    }
+
+    public static int ballSize(int width, int height, int columns, int rows) {
+        int cell = Math.min(width / columns, height / rows);
+        return Math.min(cell, Math.max(MIN_BALL_SIZE, cell - Math.max(1, cell / BALL_MARGIN_DIVISOR)));
+    }
+
+    public void setBallColor(int row, int col, Color color) {
+        int index = row * columns + col;
+        if (balls[index] != color) {
+            balls[index] = color;
+            repaintCell(index);
+        }
+    }
+
+    public void showBall(int row, int col, Color color) {
+        int index = row * columns + col;
+        Color old = balls[index];
+        if (old == color) return;
+        long now = System.nanoTime();
+        if ((color == null || old == null) && !hasEffect(index)) {
+            effectCells[effectCount++] = index;
+        }
+        if (old == null) {
+            growStarts[index] = now;
+            fadeStarts[index] = 0;
+            fadingBalls[index] = null;
+        } else if (color == null) {
+            fadeStarts[index] = now;
+            fadingBalls[index] = old;
+            growStarts[index] = 0;
+        }
+        if (color == null || old == null) {
+            clock.start(effects);
+        }
+        setBallColor(row, col, color);
+    }
+
+    public boolean isAnimating() {
+        return effectCount > 0;
+    }
+
+    public void setSelected(int row, int col, boolean isSelected) {
+        int index = row * columns + col;
+        if (isSelected) {
+            if (selected == index) return;
+            clearSelection();
+            selected = index;
+            selectedSince = System.nanoTime();
+            bounceOffset = 0;
+            clock.start(bounce);
+            repaintCell(index);
+        } else if (selected == index) {
+            clearSelection();
+        }
+    }
+
+    public void clearSelection() {
+        if (selected < 0) return;
+        clock.stop(bounce);
+        bounceOffset = 0;
+        repaintCell(selected);
+        selected = -1;
+    }
+
+    public void setReachable(int row, int col, boolean isReachable) {
+        int index = row * columns + col;
+        if (reachable[index] != isReachable) {
+            reachable[index] = isReachable;
+            repaintCell(index);
+        }
+    }
+
+    public void setHint(int row, int col, boolean isHint) {
+        int index = row * columns + col;
+        if (hints[index] != isHint) {
+            hints[index] = isHint;
+            repaintCell(index);
+        }
+    }
+
+    public int cellAt(int x, int y) {
+        int cellWidth = getWidth() / columns;
+        int cellHeight = getHeight() / rows;
+        if (cellWidth == 0 || cellHeight == 0) return -1;
+        int col = Math.floorDiv(x - originX(cellWidth), cellWidth);
+        int row = Math.floorDiv(y - originY(cellHeight), cellHeight);
+        if (row < 0 || row >= rows || col < 0 || col >= columns) return -1;
+        return row * columns + col;
+    }
+
+    private boolean bounce(long now) {
+        if (selected < 0) return false;
+        int phase = (int) ((now - selectedSince) / BOUNCE_STEP_NANOS % (2 * MAX_BOUNCE_HEIGHT));
+        int offset = phase <= MAX_BOUNCE_HEIGHT ? phase : 2 * MAX_BOUNCE_HEIGHT - phase;
+        if (offset != bounceOffset) {
+            bounceOffset = offset;
+            repaintCell(selected);
+        }
+        return true;
+    }
+
+    private boolean effects(long now) {
+        int kept = 0;
+        for (int i = 0; i < effectCount; i++) {
+            int index = effectCells[i];
+            if (growStarts[index] != 0 && now - growStarts[index] >= GROW_NANOS) {
+                growStarts[index] = 0;
+            }
+            if (fadeStarts[index] != 0 && now - fadeStarts[index] >= FADE_NANOS) {
+                fadeStarts[index] = 0;
+                fadingBalls[index] = null;
+            }
+            repaintCell(index);
+            if (hasEffect(index)) {
+                effectCells[kept++] = index;
+            }
+        }
+        effectCount = kept;
+        return effectCount > 0;
+    }
+
+    private boolean hasEffect(int index) {
+        return growStarts[index] != 0 || fadeStarts[index] != 0;
+    }
+
+    private void repaintCell(int index) {
+        Rectangle bounds = cellBounds(index);
+        clock.repaint(this, bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+    private Rectangle cellBounds(int index) {
+        int cellWidth = getWidth() / columns;
+        int cellHeight = getHeight() / rows;
+        cellBounds.setBounds(originX(cellWidth) + index % columns * cellWidth,
+                originY(cellHeight) + index / columns * cellHeight, cellWidth, cellHeight);
+        return cellBounds;
+    }
+
+    private int originX(int cellWidth) {
+        return (getWidth() - cellWidth * columns) / 2;
+    }
+
+    private int originY(int cellHeight) {
+        return (getHeight() - cellHeight * rows) / 2;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        super.paintComponent(g);
+        int cellWidth = getWidth() / columns;
+        int cellHeight = getHeight() / rows;
+        if (cellWidth == 0 || cellHeight == 0) return;
+        int originX = originX(cellWidth);
+        int originY = originY(cellHeight);
+
+        Rectangle clip = g.getClipBounds();
+        int firstCol = 0, lastCol = columns - 1, firstRow = 0, lastRow = rows - 1;
+        if (clip != null) {
+            firstCol = Math.max(0, Math.floorDiv(clip.x - originX, cellWidth));
+            lastCol = Math.min(columns - 1, Math.floorDiv(clip.x + clip.width - 1 - originX, cellWidth));
+            firstRow = Math.max(0, Math.floorDiv(clip.y - originY, cellHeight));
+            lastRow = Math.min(rows - 1, Math.floorDiv(clip.y + clip.height - 1 - originY, cellHeight));
+        }
+
+        Graphics2D g2d = (Graphics2D) g;
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        long now = System.nanoTime();
+        int size = ballSize(getWidth(), getHeight(), columns, rows);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int index = row * columns + col;
+                int x = originX + col * cellWidth;
+                int y = originY + row * cellHeight;
+
+                g2d.setColor(GRID_COLOR);
+                g2d.drawRect(x, y, cellWidth - 1, cellHeight - 1);
+                if (reachable[index] && balls[index] == null) {
+                    g2d.setColor(REACHABLE_COLOR);
+                    g2d.fillRect(x, y, cellWidth, cellHeight);
+                }
+                if (hints[index]) {
+                    Stroke stroke = g2d.getStroke();
+                    g2d.setColor(HINT_COLOR);
+                    g2d.setStroke(HINT_STROKE);
+                    g2d.drawRect(x + 2, y + 2, cellWidth - 5, cellHeight - 5);
+                    g2d.setStroke(stroke);
+                }
+                if (size <= 0) continue;
+                int ballX = x + (cellWidth - size) / 2;
+                int ballY = y + (cellHeight - size) / 2;
+                if (balls[index] != null) {
+                    if (index == selected) {
+                        ballY -= bounceOffset;
+                    }
+                    Image sprite = BallSprites.get(balls[index], size, index == selected, configuration);
+                    if (growStarts[index] != 0) {
+                        float scale = GROW_FROM + (1 - GROW_FROM) * Math.min(1f, (now - growStarts[index]) / (float) GROW_NANOS);
+                        int extent = Math.round((size + 2 * BallSprites.PADDING) * scale);
+                        int center = size / 2 + BallSprites.PADDING;
+                        g2d.drawImage(sprite, ballX - BallSprites.PADDING + center - extent / 2,
+                                ballY - BallSprites.PADDING + center - extent / 2, extent, extent, null);
+                    } else {
+                        g2d.drawImage(sprite, ballX - BallSprites.PADDING, ballY - BallSprites.PADDING, null);
+                    }
+                } else if (fadingBalls[index] != null) {
+                    float alpha = 1 - Math.min(1f, (now - fadeStarts[index]) / (float) FADE_NANOS);
+                    Composite composite = g2d.getComposite();
+                    g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+                    g2d.drawImage(BallSprites.get(fadingBalls[index], size, false, configuration),
+                            ballX - BallSprites.PADDING, ballY - BallSprites.PADDING, null);
+                    g2d.setComposite(composite);
+                }
+            }
+        }
+        if (metrics != null) metrics.record(GameMetrics.Operation.PAINT, System.nanoTime() - start);
+    }
+}
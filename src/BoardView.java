@@ -0,0 +1,17 @@
+public interface BoardView {
+    int getWidth();
+
+    int getHeight();
+
+    int getColor(int row, int col);
+
+    int getNextColorCount();
+
+    int getNextColor(int index);
+
+    int getScore();
+
+    default boolean isEmpty(int row, int col) {
+        return getColor(row, col) == GameEngine.EMPTY;
+    }
+}
@@ -2,6 +2,9 @@ import javax.swing.*;
 
 public class ColorLines {
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new GameFrame());
+        StartupTimer.mark("main");
+        GameConfig config = GameConfig.fromArgs(args);
+        StartupLoader loader = new StartupLoader(config);
+        SwingUtilities.invokeLater(() -> StartupTimer.run("frame", () -> new GameFrame(loader)));
     }
 }
\ No newline at end of file
@@ -1,19 +1,27 @@
 import java.awt.Color;
-import java.util.Random;
 
 public class ColorManager {
-    private static final int COLORS = 7;
-    private static final int NEXT_COLORS_COUNT = 3;
-
+    private final GameEngine engine;
     private Color[] tileColors;
-    private Color[] nextColors;
     private NextColorsPanel nextColorsPanel;
-    private Random random;
 
-    public ColorManager() {
-        tileColors = new Color[]{Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW, Color.MAGENTA, Color.CYAN, new Color(139, 69, 19)};
-        nextColors = new Color[NEXT_COLORS_COUNT];
-        random = new Random();
+    public ColorManager(GameEngine engine) {
+        this.engine = engine;
+        tileColors = createPalette(engine.getConfig().getColorCount());
+    }
+
+    public static Color[] createPalette(int count) {
+        Color[] base = {Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW, Color.MAGENTA, Color.CYAN, new Color(139, 69, 19)};
+        Color[] palette = new Color[count];
+        for (int i = 0; i < count; i++) {
+            if (i < base.length) {
+                palette[i] = base[i];
+            } else {
+                float hue = (i - base.length) * 0.618034f % 1f;
+                palette[i] = Color.getHSBColor(hue, 0.6f + 0.4f * ((i & 1) == 0 ? 1 : 0), 0.75f);
+            }
+        }
+        return palette;
     }
 
     public void setNextColorsPanel(NextColorsPanel panel) {
@@ -21,24 +29,15 @@ public class ColorManager {
     }
 
     public Color[] getNextColors() {
-        return nextColors;
-    }
-
-    public void setNextColors(Color[] colors) {
-        if (colors != null && colors.length == nextColors.length) {
-            for (int i = 0; i < colors.length; i++) {
-                nextColors[i] = colors[i];
-            }
-            if (nextColorsPanel != null) {
-                nextColorsPanel.updateNextColorsPreview();
-            }
+        int[] next = engine.getNextColors();
+        Color[] colors = new Color[next.length];
+        for (int i = 0; i < next.length; i++) {
+            colors[i] = getColor(next[i]);
         }
+        return colors;
     }
 
-    public void generateNextColors() {
-        for (int i = 0; i < nextColors.length; i++) {
-            nextColors[i] = tileColors[random.nextInt(COLORS)];
-        }
+    public void updateNextColorsPreview() {
         if (nextColorsPanel != null) {
             nextColorsPanel.updateNextColorsPreview();
         }
@@ -47,4 +46,9 @@ public class ColorManager {
     public Color[] getTileColors() {
         return tileColors;
     }
-}
\ No newline at end of file
+
+    public Color getColor(int index) {
+        if (index < 0 || index >= tileColors.length) return null;
+        return tileColors[index];
+    }
+}
@@ -0,0 +1,84 @@
+public class EvaluationCache {
+    private final long[] keys;
+    private final double[] values;
+    private final boolean[] used;
+    private final int mask;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public EvaluationCache(int bits) {
+        int size = 1 << bits;
+        keys = new long[size * 2];
+        values = new double[size * 2];
+        used = new boolean[size * 2];
+        mask = size - 1;
+    }
+
+    public double get(long key) {
+        int slot = slot(key);
+        if (used[slot] && keys[slot] == key) {
+            hits++;
+            return values[slot];
+        }
+        if (used[slot + 1] && keys[slot + 1] == key) {
+            hits++;
+            double value = values[slot + 1];
+            promote(slot);
+            return value;
+        }
+        misses++;
+        return Double.NaN;
+    }
+
+    public void put(long key, double value) {
+        int slot = slot(key);
+        if (used[slot] && keys[slot] != key) {
+            if (used[slot + 1] && keys[slot + 1] != key) evictions++;
+            keys[slot + 1] = keys[slot];
+            values[slot + 1] = values[slot];
+            used[slot + 1] = true;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+    }
+
+    public void clear() {
+        for (int i = 0; i < used.length; i++) {
+            used[i] = false;
+        }
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    private void promote(int slot) {
+        long key = keys[slot];
+        double value = values[slot];
+        keys[slot] = keys[slot + 1];
+        values[slot] = values[slot + 1];
+        keys[slot + 1] = key;
+        values[slot + 1] = value;
+    }
+
+    private int slot(long key) {
+        return ((int) (key ^ (key >>> 32)) & mask) << 1;
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.Arrays;
+
+public class FreeCellSet {
+    private final int[] cells;
+    private final int[] positions;
+    private final long[] words;
+    private final int[] counts;
+    private int size;
+
+    public FreeCellSet(int capacity) {
+        cells = new int[capacity];
+        positions = new int[capacity];
+        words = new long[(capacity + 63) >>> 6];
+        counts = new int[words.length + 1];
+        clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int cell) {
+        return positions[cell] >= 0;
+    }
+
+    public int get(int position) {
+        return cells[position];
+    }
+
+    public int select(int rank) {
+        int word = 0;
+        for (int step = Integer.highestOneBit(words.length); step > 0; step >>>= 1) {
+            int next = word + step;
+            if (next <= words.length && counts[next] <= rank) {
+                word = next;
+                rank -= counts[next];
+            }
+        }
+        long bits = words[word];
+        for (; rank > 0; rank--) {
+            bits &= bits - 1;
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    public int positionOf(int cell) {
+        return positions[cell];
+    }
+
+    public void add(int cell) {
+        if (positions[cell] >= 0) return;
+        positions[cell] = size;
+        cells[size++] = cell;
+        mark(cell, 1);
+    }
+
+    public void remove(int cell) {
+        int position = positions[cell];
+        if (position < 0) return;
+        int last = cells[--size];
+        cells[position] = last;
+        positions[last] = position;
+        positions[cell] = -1;
+        mark(cell, -1);
+    }
+
+    public void clear() {
+        Arrays.fill(positions, -1);
+        Arrays.fill(words, 0);
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    public void fill() {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+            positions[i] = i;
+        }
+        size = cells.length;
+        Arrays.fill(words, -1L);
+        if ((cells.length & 63) != 0) {
+            words[words.length - 1] = -1L >>> (64 - (cells.length & 63));
+        }
+        for (int i = 1; i <= words.length; i++) {
+            counts[i] = Long.bitCount(words[i - 1]);
+        }
+        for (int i = 1; i <= words.length; i++) {
+            int parent = i + (i & -i);
+            if (parent <= words.length) {
+                counts[parent] += counts[i];
+            }
+        }
+    }
+
+    private void mark(int cell, int delta) {
+        words[cell >>> 6] ^= 1L << cell;
+        for (int i = (cell >>> 6) + 1; i <= words.length; i += i & -i) {
+            counts[i] += delta;
+        }
+    }
+}
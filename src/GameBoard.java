@@ -1,35 +1,79 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.*;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Random;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 public class GameBoard {
-    private static final int SIZE = 9;
-    private static final int CONNECT_COUNT = 5;
+    private static final long TRAVEL_STEP_NANOS = 30_000_000L;
+    private static final int CHECKPOINT_INTERVAL = 50;
     private static final String SAVE_FILE = System.getProperty("user.dir") + File.separator + "game_save.dat";
 
-    private BallButton[][] board;
+    private final GameEngine engine;
+    private final File saveFile;
+    private final AutoSaver autoSaver;
+    private final File journalFile;
+    private MoveJournal journal;
+    private final int width;
+    private final int height;
+    private BoardCanvas canvas;
     private int selectedRow = -1, selectedCol = -1;
     private ColorManager colorManager;
     private ScoreManager scoreManager;
-    private JPanel gamePanel;
-    private Random random;
-    private Color[] tileColors;
+    private final int[] reachableCells;
+    private int reachableCount;
+    private final AnimationClock clock = AnimationClock.getDefault();
+    private final GameMetrics metrics = GameMetrics.get();
+    private final int[] travelPath;
+    private AnimationClock.Animation travel;
+    private int hintFrom = -1, hintTo = -1;
+    private Runnable turnListener;
+    private int moves;
+    private long playMillis;
+    private long resumedAt = System.currentTimeMillis();
 
     public GameBoard(ScoreManager scoreManager) {
+        this(scoreManager, GameConfig.DEFAULT);
+    }
+
+    public GameBoard(ScoreManager scoreManager, GameConfig config) {
+        this(scoreManager, config, new File(SAVE_FILE));
+    }
+
+    public GameBoard(ScoreManager scoreManager, GameConfig config, File saveFile) {
         this.scoreManager = scoreManager;
-        board = new BallButton[SIZE][SIZE];
-        random = new Random();
-        colorManager = new ColorManager();
-        tileColors = colorManager.getTileColors();
-        initializeBoard();
+        this.saveFile = saveFile;
+        autoSaver = new AutoSaver(saveFile);
+        journalFile = new File(saveFile.getPath() + ".journal");
+        engine = new GameEngine(config, new GameRandom());
+        engine.setHistoryEnabled(true);
+        engine.setMetrics(metrics);
+        try {
+            journal = new MoveJournal(journalFile);
+            engine.setRecorder(journal);
+        } catch (IOException e) {
+            System.err.println("Failed to open move journal: " + e.getMessage());
+        }
+        width = config.getWidth();
+        height = config.getHeight();
+        reachableCells = new int[config.getCellCount()];
+        travelPath = new int[config.getCellCount()];
+        colorManager = new ColorManager(engine);
     }
 
-    public BallButton[][] getBoard() {
-        return board;
+    public BoardCanvas getCanvas() {
+        if (canvas == null) {
+            initializeBoard();
+        }
+        return canvas;
+    }
+
+    public ScoreManager getScoreManager() {
+        return scoreManager;
+    }
+
+    public GameEngine getEngine() {
+        return engine;
     }
 
     public int getSelectedRow() {
@@ -48,330 +92,327 @@ public class GameBoard {
         return colorManager;
     }
 
+    public void setTurnListener(Runnable listener) {
+        turnListener = listener;
+    }
+
     private void initializeBoard() {
-        gamePanel = new JPanel(new GridLayout(SIZE, SIZE));
-
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                BallButton cell = new BallButton();
-                cell.addActionListener(new CellClickListener(row, col));
-                board[row][col] = cell;
-                gamePanel.add(cell);
+        canvas = new BoardCanvas(width, height);
+        canvas.setCellListener(this::cellClicked);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                canvas.setBallColor(row, col, colorManager.getColor(engine.getColor(row, col)));
             }
         }
+        engine.setListener(this::gameChanged);
     }
 
     public JPanel getPanel() {
-        return gamePanel;
+        return getCanvas();
     }
 
     public void tryMove(int fromRow, int fromCol, int toRow, int toCol) {
-        if (!isValidMove(fromRow, fromCol, toRow, toCol)) return;
-        board[toRow][toCol].setBallColor(board[fromRow][fromCol].getBallColor());
-        board[fromRow][fromCol].setBallColor(null);
-        board[fromRow][fromCol].setSelected(false);
-
+        if (isAnimating() || !engine.canMove(fromRow, fromCol, toRow, toCol)) return;
+        long start = System.nanoTime();
+        int length = engine.findPath(fromRow, fromCol, toRow, toCol, travelPath);
+        if (selectedRow != -1 && selectedCol != -1) {
+            canvas.setSelected(selectedRow, selectedCol, false);
+        }
+        clearReachable();
+        clearHint();
         selectedRow = -1;
         selectedCol = -1;
-        gamePanel.revalidate();
-        gamePanel.repaint();
-
-        boolean cleared = checkForConnects();
-        if (cleared) {
-            colorManager.generateNextColors();
-            updateUI();
-            saveState();
-            return;
-        }
-        if (!addNextBallsAndCheck()) {
-            showGameOver("Game Over! No more moves available.");
-        }
-        updateUI();
-        saveState();
-    }
 
-    private boolean addNextBallsAndCheck() {
-        int emptySpaces = 0;
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                if (board[row][col].getBallColor() == null) emptySpaces++;
+        Color ballColor = colorManager.getColor(engine.getColor(fromRow, fromCol));
+        int[] step = {1};
+        AnimationClock.Animation animation = new AnimationClock.Animation() {
+            @Override
+            public boolean tick(long now) {
+                int target = (int) Math.min(length - 1, (now - start) / TRAVEL_STEP_NANOS);
+                for (; step[0] <= target; step[0]++) {
+                    int previous = travelPath[step[0] - 1];
+                    int current = travelPath[step[0]];
+                    canvas.setBallColor(previous / width, previous % width, null);
+                    canvas.setBallColor(current / width, current % width, ballColor);
+                }
+                if (step[0] < length) return true;
+                SwingUtilities.invokeLater(() -> {
+                    if (travel == this) {
+                        travel = null;
+                        finishMove(fromRow, fromCol, toRow, toCol);
+                    }
+                });
+                return false;
             }
-        }
-        Color[] nextColors = colorManager.getNextColors();
-        if (emptySpaces < nextColors.length) {
-            return false;
-        }
-        for (Color color : nextColors) {
-            int row, col;
-            do {
-                row = random.nextInt(SIZE);
-                col = random.nextInt(SIZE);
-            } while (board[row][col].getBallColor() != null);
-            board[row][col].setBallColor(color);
-        }
-        colorManager.generateNextColors();
-        checkForConnects();
-        return !isBoardFull();
+        };
+        travel = animation;
+        clock.start(animation);
+        if (metrics != null) metrics.record(GameMetrics.Operation.TRY_MOVE, System.nanoTime() - start);
     }
 
-    private void updateUI() {
-        gamePanel.revalidate();
-        gamePanel.repaint();
+    public boolean isAnimating() {
+        return travel != null;
     }
 
-    private boolean isValidMove(int fromRow, int fromCol, int toRow, int toCol) {
-        return board[toRow][toCol].getBallColor() == null && hasPath(fromRow, fromCol, toRow, toCol);
+    private void stopTravel() {
+        if (travel != null) {
+            clock.stop(travel);
+            travel = null;
+        }
     }
 
-    private boolean hasPath(int fromRow, int fromCol, int toRow, int toCol) {
-        boolean[][] visited = new boolean[SIZE][SIZE];
-        Queue<int[]> queue = new LinkedList<>();
-        queue.add(new int[]{fromRow, fromCol});
-        visited[fromRow][fromCol] = true;
-
-        int[] rowDir = {-1, 1, 0, 0};
-        int[] colDir = {0, 0, -1, 1};
-
-        while (!queue.isEmpty()) {
-            int[] current = queue.poll();
-            int currRow = current[0];
-            int currCol = current[1];
-
-            if (currRow == toRow && currCol == toCol) {
-                return true;
-            }
-
-            for (int i = 0; i < 4; i++) {
-                int newRow = currRow + rowDir[i];
-                int newCol = currCol + colDir[i];
-
-                if (isValidCell(newRow, newCol) && !visited[newRow][newCol] && board[newRow][newCol].getBallColor() == null) {
-                    visited[newRow][newCol] = true;
-                    queue.add(new int[]{newRow, newCol});
-                }
-            }
+    private void finishMove(int fromRow, int fromCol, int toRow, int toCol) {
+        long start = System.nanoTime();
+        GameEngine.TurnResult result = engine.playTurn(fromRow, fromCol, toRow, toCol);
+        if (metrics != null) metrics.record(GameMetrics.Operation.TURN, System.nanoTime() - start);
+        if (result == GameEngine.TurnResult.INVALID) {
+            refreshBoard();
+            return;
         }
+        moves++;
 
-        return false;
+        if (result == GameEngine.TurnResult.GAME_OVER) {
+            int rank = scoreManager.recordGame(System.getProperty("user.name"), moves, getPlayMillis());
+            Leaderboard leaderboard = scoreManager.getLeaderboard();
+            showGameOver("Game Over! No more moves available."
+                    + (rank > 0 ? "\nRank: " + rank + " of " + leaderboard.size() : ""));
+        }
+        if (journal == null || journal.getMovesSinceCheckpoint() >= CHECKPOINT_INTERVAL) {
+            checkpoint();
+        }
+        if (turnListener != null) {
+            turnListener.run();
+        }
     }
 
-    private boolean isValidCell(int row, int col) {
-        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+    public boolean undo() {
+        if (isAnimating() || !engine.undo()) return false;
+        moves--;
+        historyChanged();
+        return true;
     }
 
-    private boolean checkForConnects() {
-        boolean[][] toClear = new boolean[SIZE][SIZE];
-
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                if (board[row][col].getBallColor() != null) {
-                    Color color = board[row][col].getBallColor();
-
-                    if (col <= SIZE - CONNECT_COUNT && checkDirection(row, col, 0, 1, color)) {
-                        markForClear(row, col, 0, 1, toClear);
-                    }
-
-                    if (row <= SIZE - CONNECT_COUNT && checkDirection(row, col, 1, 0, color)) {
-                        markForClear(row, col, 1, 0, toClear);
-                    }
-
-                    if (row <= SIZE - CONNECT_COUNT && col <= SIZE - CONNECT_COUNT && checkDirection(row, col, 1, 1, color)) {
-                        markForClear(row, col, 1, 1, toClear);
-                    }
+    public boolean redo() {
+        if (isAnimating() || !engine.redo()) return false;
+        moves++;
+        historyChanged();
+        return true;
+    }
 
-                    if (row >= CONNECT_COUNT - 1 && col <= SIZE - CONNECT_COUNT && checkDirection(row, col, -1, 1, color)) {
-                        markForClear(row, col, -1, 1, toClear);
-                    }
-                }
-            }
+    private void historyChanged() {
+        if (selectedRow != -1 && selectedCol != -1) {
+            canvas.setSelected(selectedRow, selectedCol, false);
         }
-
-        boolean[][] crossPattern = detectCrossPatterns(toClear);
-
-        return clearMarkedCells(toClear, crossPattern);
+        clearReachable();
+        clearHint();
+        selectedRow = -1;
+        selectedCol = -1;
+        checkpoint();
     }
 
-    private boolean[][] detectCrossPatterns(boolean[][] toClear) {
-        boolean[][] crossPattern = new boolean[SIZE][SIZE];
-
-        for (int row = 1; row < SIZE - 1; row++) {
-            for (int col = 1; col < SIZE - 1; col++) {
-                if (toClear[row][col] && toClear[row - 1][col] && toClear[row + 1][col] && toClear[row][col - 1] && toClear[row][col + 1]) {
-
-                    crossPattern[row][col] = true;
-                    crossPattern[row - 1][col] = true;
-                    crossPattern[row + 1][col] = true;
-                    crossPattern[row][col - 1] = true;
-                    crossPattern[row][col + 1] = true;
-                }
+    private void gameChanged(GameChange change) {
+        if (change.isBoardReset()) {
+            refreshBoard();
+        } else {
+            for (int i = 0; i < change.getChangedCount(); i++) {
+                int cell = change.getChangedCell(i);
+                canvas.showBall(cell / width, cell % width, colorManager.getColor(engine.getColor(cell / width, cell % width)));
             }
         }
-        return crossPattern;
-    }
-
-    private boolean checkDirection(int row, int col, int dRow, int dCol, Color color) {
-        for (int i = 0; i < CONNECT_COUNT; i++) {
-            if (board[row + i * dRow][col + i * dCol].getBallColor() != color) {
-                return false;
+        if (change.getScoreDelta() != 0) {
+            scoreManager.setScore(change.getScore());
+            if (change.getScoreDelta() > 0) {
+                scoreManager.updateHighScore();
             }
         }
-        return true;
-    }
-
-    private void markForClear(int row, int col, int dRow, int dCol, boolean[][] toClear) {
-        for (int i = 0; i < CONNECT_COUNT; i++) {
-            toClear[row + i * dRow][col + i * dCol] = true;
+        if (change.isNextColorsChanged()) {
+            colorManager.updateNextColorsPreview();
         }
     }
 
-    private boolean clearMarkedCells(boolean[][] toClear, boolean[][] crossPattern) {
-        int cleared = 0;
-        int crossBonus = 0;
-
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                if (toClear[row][col]) {
-                    board[row][col].setBallColor(null);
-                    cleared++;
-                    if (crossPattern[row][col]) {
-                        crossBonus++;
-                    }
-                }
+    private void refreshBoard() {
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                canvas.showBall(row, col, colorManager.getColor(engine.getColor(row, col)));
             }
         }
+    }
 
-        if (cleared > 0) {
-            int regularScore = cleared * 2;
-            int bonusScore = crossBonus * 8;
-            scoreManager.addScore(regularScore + bonusScore);
-            scoreManager.updateHighScore();
-            return true;
+    private void showReachable(int row, int col) {
+        reachableCount = engine.getReachableCells(row, col, reachableCells);
+        for (int i = 0; i < reachableCount; i++) {
+            canvas.setReachable(reachableCells[i] / width, reachableCells[i] % width, true);
         }
-        return false;
     }
 
-    private boolean isBoardFull() {
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                if (board[row][col].getBallColor() == null) {
-                    return false;
-                }
-            }
+    private void clearReachable() {
+        for (int i = 0; i < reachableCount; i++) {
+            canvas.setReachable(reachableCells[i] / width, reachableCells[i] % width, false);
         }
-        return true;
+        reachableCount = 0;
     }
 
-    private class CellClickListener implements ActionListener {
-        private final int row;
-        private final int col;
+    public void showHint(int fromRow, int fromCol, int toRow, int toCol) {
+        clearHint();
+        if (!engine.canMove(fromRow, fromCol, toRow, toCol)) return;
+        hintFrom = fromRow * width + fromCol;
+        hintTo = toRow * width + toCol;
+        canvas.setHint(fromRow, fromCol, true);
+        canvas.setHint(toRow, toCol, true);
+    }
 
-        public CellClickListener(int row, int col) {
-            this.row = row;
-            this.col = col;
+    public void clearHint() {
+        if (hintFrom >= 0) {
+            canvas.setHint(hintFrom / width, hintFrom % width, false);
+            canvas.setHint(hintTo / width, hintTo % width, false);
         }
+        hintFrom = -1;
+        hintTo = -1;
+    }
 
-        @Override
-        public void actionPerformed(ActionEvent e) {
-            if (selectedRow != -1 && selectedCol != -1) {
-                board[selectedRow][selectedCol].setSelected(false);
-            }
-            Color ballColor = board[row][col].getBallColor();
-            if (ballColor != null) {
-                selectedRow = row;
-                selectedCol = col;
-                board[row][col].setSelected(true);
-            } else if (selectedRow != -1 && selectedCol != -1) {
-                tryMove(selectedRow, selectedCol, row, col);
-            }
+    private void cellClicked(int row, int col) {
+        if (isAnimating()) return;
+        if (selectedRow != -1 && selectedCol != -1) {
+            canvas.setSelected(selectedRow, selectedCol, false);
+            clearReachable();
+        }
+        if (!engine.isEmpty(row, col)) {
+            selectedRow = row;
+            selectedCol = col;
+            canvas.setSelected(row, col, true);
+            showReachable(row, col);
+        } else if (selectedRow != -1 && selectedCol != -1) {
+            tryMove(selectedRow, selectedCol, row, col);
         }
     }
 
     public void startNewGame() {
-        scoreManager.resetScore();
+        startNewGame(new GameRandom().nextLong());
+    }
+
+    public void startNewGame(long seed) {
+        stopTravel();
+        clearReachable();
+        clearHint();
         selectedRow = -1;
         selectedCol = -1;
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                board[row][col].setBallColor(null);
-                board[row][col].setSelected(false);
-            }
+        if (canvas != null) {
+            canvas.clearSelection();
+        }
+        engine.startNewGame(seed);
+        moves = 0;
+        playMillis = 0;
+        resumedAt = System.currentTimeMillis();
+        if (journal != null) {
+            journal.reset(currentState());
         }
-        colorManager.generateNextColors();
-        addNextBallsAndCheck();
-        updateUI();
         saveState();
     }
 
     public boolean loadState() {
-        File file = new File(SAVE_FILE);
-        if (!file.exists()) return false;
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
-            GameState state = (GameState) in.readObject();
-            for (int row = 0; row < SIZE; row++) {
-                for (int col = 0; col < SIZE; col++) {
-                    int idx = state.boardColors[row][col];
-                    board[row][col].setBallColor(indexToColor(idx));
-                    board[row][col].setSelected(false);
-                }
+        try {
+            GameState state = journal != null ? journal.recover() : null;
+            boolean fromJournal = state != null && fits(state);
+            if (!fromJournal) {
+                if (!saveFile.exists()) return false;
+                state = SaveFormat.read(saveFile);
+                if (!fits(state)) return false;
+            }
+            clearReachable();
+            clearHint();
+            engine.restore(state);
+            moves = state.moves;
+            playMillis = state.playMillis;
+            resumedAt = System.currentTimeMillis();
+            if (fromJournal) {
+                moves += journal.replayTail(engine);
+                engine.clearHistory();
+            } else if (journal != null) {
+                journal.reset(state);
             }
-            Color[] next = new Color[state.nextColors.length];
-            for (int i = 0; i < next.length; i++) {
-                next[i] = indexToColor(state.nextColors[i]);
+            if (canvas != null) {
+                canvas.clearSelection();
             }
-            colorManager.setNextColors(next);
-            scoreManager.setScore(state.score);
-            scoreManager.setHighScore(state.highScore);
+            scoreManager.setScore(engine.getScore());
+            scoreManager.mergeHighScore(engine.getScore());
             selectedRow = -1;
             selectedCol = -1;
-            updateUI();
             return true;
-        } catch (Exception e) {
-            System.err.println("Failed to load game state: " + e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to load game state: " + e);
+            keepUnreadableSave();
             return false;
         }
     }
 
+    private void keepUnreadableSave() {
+        if (!saveFile.exists()) return;
+        File copy = getUnreadableSaveFile();
+        try {
+            Files.copy(saveFile.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("Kept the unreadable save as " + copy);
+        } catch (IOException e) {
+            System.err.println("Failed to keep the unreadable save: " + e.getMessage());
+        }
+    }
+
+    private boolean fits(GameState state) {
+        return state.getWidth() == width && state.getHeight() == height
+                && state.nextColors.length == engine.getNextColors().length;
+    }
+
     private void showGameOver(String message) {
         int choice = JOptionPane.showOptionDialog(null, message + "\nFinal Score: " + scoreManager.getScore(), "Game Over", JOptionPane.YES_NO_OPTION, JOptionPane.INFORMATION_MESSAGE, null, new String[]{"Play Again", "Exit"}, "Play Again");
 
         if (choice == JOptionPane.YES_OPTION) {
             startNewGame();
         } else {
+            flushSave();
             System.exit(0);
         }
     }
 
     public void saveState() {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(SAVE_FILE))) {
-            GameState state = new GameState();
-            for (int row = 0; row < SIZE; row++) {
-                for (int col = 0; col < SIZE; col++) {
-                    Color c = board[row][col].getBallColor();
-                    state.boardColors[row][col] = colorToIndex(c);
-                }
-            }
-            Color[] next = colorManager.getNextColors();
-            for (int i = 0; i < next.length; i++) {
-                state.nextColors[i] = colorToIndex(next[i]);
-            }
-            state.score = scoreManager.getScore();
-            state.highScore = scoreManager.getHighScore();
-            out.writeObject(state);
-        } catch (Exception e) {
-            System.err.println("Failed to save game state: " + e.getMessage());
+        autoSaver.save(currentState());
+    }
+
+    private void checkpoint() {
+        GameState state = currentState();
+        if (journal != null) {
+            journal.checkpoint(state);
         }
+        autoSaver.save(state);
+    }
+
+    private GameState currentState() {
+        GameState state = engine.snapshot();
+        state.score = scoreManager.getScore();
+        state.highScore = scoreManager.getHighScore();
+        state.moves = moves;
+        state.playMillis = getPlayMillis();
+        return state;
     }
 
-    private int colorToIndex(Color c) {
-        if (c == null) return -1;
-        for (int i = 0; i < tileColors.length; i++) {
-            if (tileColors[i].equals(c)) return i;
+    private long getPlayMillis() {
+        return playMillis + System.currentTimeMillis() - resumedAt;
+    }
+
+    public void flushSave() {
+        autoSaver.flush();
+        if (journal != null) {
+            journal.force();
         }
-        return -1;
     }
 
-    private Color indexToColor(int idx) {
-        if (idx < 0 || idx >= tileColors.length) return null;
-        return tileColors[idx];
+    public File getJournalFile() {
+        return journalFile;
+    }
+
+    public File getUnreadableSaveFile() {
+        return new File(saveFile.getPath() + ".unreadable");
+    }
+
+    public AutoSaver getAutoSaver() {
+        return autoSaver;
     }
-}
\ No newline at end of file
+}
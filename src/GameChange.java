@@ -0,0 +1,93 @@
+public class GameChange {
+    private final boolean[] marked;
+    private final int[] cells;
+    private int cellCount;
+    private boolean boardReset;
+    private boolean nextColorsChanged;
+    private boolean gameOver;
+    private int score;
+    private int scoreDelta;
+
+    GameChange(int size) {
+        marked = new boolean[size];
+        cells = new int[size];
+    }
+
+    public int getChangedCount() {
+        return cellCount;
+    }
+
+    public int getChangedCell(int index) {
+        return cells[index];
+    }
+
+    public boolean isBoardReset() {
+        return boardReset;
+    }
+
+    public boolean isNextColorsChanged() {
+        return nextColorsChanged;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getScoreDelta() {
+        return scoreDelta;
+    }
+
+    public boolean isEmpty() {
+        return cellCount == 0 && !boardReset && !nextColorsChanged && !gameOver && scoreDelta == 0;
+    }
+
+    void cellChanged(int cell) {
+        if (boardReset || marked[cell]) return;
+        marked[cell] = true;
+        cells[cellCount++] = cell;
+    }
+
+    void boardReset() {
+        clearCells();
+        boardReset = true;
+    }
+
+    void nextColorsChanged() {
+        nextColorsChanged = true;
+    }
+
+    void gameOver() {
+        gameOver = true;
+    }
+
+    void setScore(int score, int scoreDelta) {
+        this.score = score;
+        this.scoreDelta = scoreDelta;
+    }
+
+    void clear() {
+        clearCells();
+        boardReset = false;
+        nextColorsChanged = false;
+        gameOver = false;
+        scoreDelta = 0;
+    }
+
+    private void clearCells() {
+        for (int i = 0; i < cellCount; i++) {
+            marked[cells[i]] = false;
+        }
+        cellCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return (boardReset ? "board reset" : cellCount + " cells") + ", score " + score
+                + (scoreDelta >= 0 ? " (+" : " (") + scoreDelta + ")"
+                + (nextColorsChanged ? ", next colors" : "") + (gameOver ? ", game over" : "");
+    }
+}
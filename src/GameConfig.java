@@ -0,0 +1,94 @@
+import java.util.Set;
+
+public class GameConfig {
+    public static final GameConfig DEFAULT = new GameConfig(9, 9, 5, 7, 3);
+    private static final Set<String> KEYS = Set.of("size", "width", "height", "connect", "colors", "spawn");
+
+    private final int width;
+    private final int height;
+    private final int connectCount;
+    private final int colorCount;
+    private final int spawnCount;
+
+    public GameConfig(int width, int height, int connectCount, int colorCount, int spawnCount) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Board must be at least 1x1, got " + width + "x" + height);
+        }
+        if (connectCount < 2 || connectCount > Math.max(width, height)) {
+            throw new IllegalArgumentException("Line length must be between 2 and " + Math.max(width, height) + ", got " + connectCount);
+        }
+        if (colorCount < 1 || colorCount > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Color count must be between 1 and " + Byte.MAX_VALUE + ", got " + colorCount);
+        }
+        if (spawnCount < 1 || spawnCount > width * height) {
+            throw new IllegalArgumentException("Spawn count must be between 1 and " + width * height + ", got " + spawnCount);
+        }
+        this.width = width;
+        this.height = height;
+        this.connectCount = connectCount;
+        this.colorCount = colorCount;
+        this.spawnCount = spawnCount;
+    }
+
+    public static GameConfig fromArgs(String[] args) {
+        int width = DEFAULT.width;
+        int height = DEFAULT.height;
+        int connectCount = DEFAULT.connectCount;
+        int colorCount = DEFAULT.colorCount;
+        int spawnCount = DEFAULT.spawnCount;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) continue;
+            String key = arg.substring(2, eq);
+            if (!KEYS.contains(key)) continue;
+            int value;
+            try {
+                value = Integer.parseInt(arg.substring(eq + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number: " + arg);
+            }
+            switch (key) {
+                case "size" -> {
+                    width = value;
+                    height = value;
+                }
+                case "width" -> width = value;
+                case "height" -> height = value;
+                case "connect" -> connectCount = value;
+                case "colors" -> colorCount = value;
+                case "spawn" -> spawnCount = value;
+            }
+        }
+        return new GameConfig(width, height, connectCount, colorCount, spawnCount);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCellCount() {
+        return width * height;
+    }
+
+    public int getConnectCount() {
+        return connectCount;
+    }
+
+    public int getColorCount() {
+        return colorCount;
+    }
+
+    public int getSpawnCount() {
+        return spawnCount;
+    }
+
+    @Override
+    public String toString() {
+        return width + "x" + height + ", " + connectCount + " in a row, " + colorCount + " colors, " + spawnCount + " per spawn";
+    }
+}
@@ -0,0 +1,650 @@
+import java.util.Arrays;
+import java.util.Random;
+
+public class GameEngine implements BoardView {
+    public static final byte EMPTY = -1;
+
+    public enum TurnResult {
+        INVALID, CLEARED, PLACED, GAME_OVER
+    }
+
+    private final GameConfig config;
+    private final int width;
+    private final int height;
+    private final int colorCount;
+    private final byte[] cells;
+    private final int[] nextColors;
+    private final Random random;
+    private final LineDetector lines;
+    private final IncrementalLineDetector incrementalLines;
+    private final ReachabilityIndex reachability;
+    private final PathRouter router;
+    private final FreeCellSet freeCells;
+    private final ZobristHash zobrist;
+    private int[] touched;
+    private int touchedCount;
+    private int score;
+    private boolean bulkUpdate;
+    private GameRecorder recorder;
+    private int[] clearedCells = new int[0];
+    private GameHistory history;
+    private int stepDepth;
+    private long seed;
+    private GameListener listener;
+    private GameChange pendingChange;
+    private int changeDepth;
+    private int publishedScore;
+    private GameMetrics metrics;
+
+    public GameEngine() {
+        this(GameConfig.DEFAULT, new GameRandom());
+    }
+
+    public GameEngine(Random random) {
+        this(GameConfig.DEFAULT, random);
+    }
+
+    public GameEngine(GameConfig config, Random random) {
+        this.config = config;
+        this.random = random;
+        width = config.getWidth();
+        height = config.getHeight();
+        colorCount = config.getColorCount();
+        cells = new byte[width * height];
+        nextColors = new int[config.getSpawnCount()];
+        lines = new LineDetector(width, height, colorCount, config.getConnectCount());
+        incrementalLines = new IncrementalLineDetector(cells, width, height, config.getConnectCount());
+        touched = new int[config.getSpawnCount()];
+        Arrays.fill(cells, EMPTY);
+        reachability = new ReachabilityIndex(cells, width, height);
+        router = new PathRouter(cells, width, height);
+        freeCells = new FreeCellSet(cells.length);
+        freeCells.fill();
+        zobrist = new ZobristHash(width, height);
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getColor(int row, int col) {
+        return cells[row * width + col];
+    }
+
+    public GameRecorder getRecorder() {
+        return recorder;
+    }
+
+    public void setRecorder(GameRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public GameListener getListener() {
+        return listener;
+    }
+
+    public void setListener(GameListener listener) {
+        this.listener = listener;
+        pendingChange = listener != null ? new GameChange(cells.length) : null;
+        publishedScore = score;
+    }
+
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public Random getRandom() {
+        return random;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GameHistory getHistory() {
+        return history;
+    }
+
+    public void setHistoryEnabled(boolean enabled) {
+        if (enabled && cells.length > GameHistory.MAX_CELLS) {
+            throw new IllegalStateException("Undo history supports at most " + GameHistory.MAX_CELLS + " cells");
+        }
+        history = enabled ? new GameHistory(nextColors.length) : null;
+    }
+
+    public void clearHistory() {
+        if (history != null) history.clear();
+    }
+
+    public int getUndoCount() {
+        return history == null ? 0 : history.getUndoCount();
+    }
+
+    public void undoTo(int count) {
+        while (getUndoCount() > count && undo()) {
+        }
+    }
+
+    public boolean canUndo() {
+        return history != null && stepDepth == 0 && history.canUndo();
+    }
+
+    public boolean canRedo() {
+        return history != null && stepDepth == 0 && history.canRedo();
+    }
+
+    public boolean undo() {
+        if (!canUndo()) return false;
+        beginChange();
+        int step = history.undoStep();
+        for (int i = history.changeTo(step) - 1; i >= history.changeFrom(step); i--) {
+            int change = history.change(i);
+            updateCell(GameHistory.cell(change), GameHistory.filled(change) ? EMPTY : GameHistory.color(change));
+        }
+        history.loadNextColors(step, false, nextColors);
+        score -= history.scoreDelta(step);
+        if (random instanceof GameRandom gameRandom) gameRandom.skip(-history.draws(step));
+        if (pendingChange != null) pendingChange.nextColorsChanged();
+        endChange();
+        return true;
+    }
+
+    public boolean redo() {
+        if (!canRedo()) return false;
+        beginChange();
+        int step = history.redoStep();
+        for (int i = history.changeFrom(step); i < history.changeTo(step); i++) {
+            int change = history.change(i);
+            updateCell(GameHistory.cell(change), GameHistory.filled(change) ? GameHistory.color(change) : EMPTY);
+        }
+        history.loadNextColors(step, true, nextColors);
+        score += history.scoreDelta(step);
+        if (random instanceof GameRandom gameRandom) gameRandom.skip(history.draws(step));
+        if (pendingChange != null) pendingChange.nextColorsChanged();
+        endChange();
+        return true;
+    }
+
+    private void beginStep() {
+        changeDepth++;
+        if (history != null && stepDepth++ == 0) history.begin(score, nextColors, randomState());
+    }
+
+    private void endStep() {
+        if (history != null && --stepDepth == 0) history.end(score, nextColors, randomState());
+        endChange();
+    }
+
+    private void beginChange() {
+        changeDepth++;
+    }
+
+    private void endChange() {
+        if (--changeDepth > 0 || pendingChange == null) return;
+        GameChange change = pendingChange;
+        change.setScore(score, score - publishedScore);
+        publishedScore = score;
+        if (change.isEmpty()) return;
+        try {
+            listener.gameChanged(change);
+        } finally {
+            change.clear();
+        }
+    }
+
+    private long randomState() {
+        return random instanceof GameRandom gameRandom ? gameRandom.getState() : 0;
+    }
+
+    public void setColor(int row, int col, int color) {
+        beginChange();
+        setCell(row, col, color);
+        endChange();
+    }
+
+    private void setCell(int row, int col, int color) {
+        int index = row * width + col;
+        int old = cells[index];
+        if (old == color) return;
+        if (history != null) {
+            if (stepDepth == 0) {
+                history.clear();
+            } else if (old == EMPTY) {
+                history.record(index, color, true);
+            } else {
+                history.record(index, old, false);
+            }
+        }
+        updateCell(index, color);
+    }
+
+    private void updateCell(int index, int color) {
+        int row = index / width;
+        int col = index % width;
+        int old = cells[index];
+        if (old != EMPTY) {
+            lines.unset(row, col, old);
+            zobrist.toggle(row, col, old);
+        }
+        if (color != EMPTY) {
+            lines.set(row, col, color);
+            zobrist.toggle(row, col, color);
+        }
+        cells[index] = (byte) color;
+        if (pendingChange != null) pendingChange.cellChanged(index);
+        if (old == EMPTY) {
+            freeCells.remove(index);
+            if (!bulkUpdate) reachability.onFilled(index);
+        } else if (color == EMPTY) {
+            freeCells.add(index);
+            if (!bulkUpdate) reachability.onEmptied(index);
+        }
+    }
+
+    public void beginBulkUpdate() {
+        bulkUpdate = true;
+    }
+
+    public void endBulkUpdate() {
+        bulkUpdate = false;
+        reachability.rebuild();
+    }
+
+    @Override
+    public boolean isEmpty(int row, int col) {
+        return cells[row * width + col] == EMPTY;
+    }
+
+    public int[] getNextColors() {
+        return nextColors;
+    }
+
+    @Override
+    public int getNextColorCount() {
+        return nextColors.length;
+    }
+
+    @Override
+    public int getNextColor(int index) {
+        return nextColors[index];
+    }
+
+    public void setNextColors(int[] colors) {
+        if (colors != null && colors.length == nextColors.length) {
+            beginStep();
+            System.arraycopy(colors, 0, nextColors, 0, colors.length);
+            if (recorder != null) recorder.nextColorsChanged(nextColors);
+            if (pendingChange != null) pendingChange.nextColorsChanged();
+            endStep();
+        }
+    }
+
+    public void generateNextColors() {
+        beginStep();
+        for (int i = 0; i < nextColors.length; i++) {
+            nextColors[i] = random.nextInt(colorCount);
+        }
+        if (recorder != null) {
+            recorder.nextColorsChanged(nextColors);
+            if (random instanceof GameRandom gameRandom) recorder.randomChanged(gameRandom.getState());
+        }
+        if (pendingChange != null) pendingChange.nextColorsChanged();
+        endStep();
+    }
+
+    @Override
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        beginChange();
+        if (stepDepth == 0) clearHistory();
+        this.score = score;
+        endChange();
+    }
+
+    public void clearBoard() {
+        beginChange();
+        clearHistory();
+        Arrays.fill(cells, EMPTY);
+        lines.clear();
+        zobrist.clear();
+        reachability.rebuild();
+        freeCells.fill();
+        score = 0;
+        if (pendingChange != null) pendingChange.boardReset();
+        endChange();
+    }
+
+    public GameEngine copy() {
+        GameEngine copy = new GameEngine(config, new GameRandom());
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    public void copyFrom(GameEngine other) {
+        if (other.cells.length != cells.length || other.width != width) {
+            throw new IllegalArgumentException("Cannot copy a " + other.config + " board into " + config);
+        }
+        beginChange();
+        clearHistory();
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        System.arraycopy(other.nextColors, 0, nextColors, 0, nextColors.length);
+        score = other.score;
+        lines.clear();
+        freeCells.clear();
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == EMPTY) {
+                freeCells.add(i);
+            } else {
+                lines.set(i / width, i % width, cells[i]);
+            }
+        }
+        zobrist.copyFrom(other.zobrist);
+        reachability.rebuild();
+        if (pendingChange != null) {
+            pendingChange.boardReset();
+            pendingChange.nextColorsChanged();
+        }
+        endChange();
+    }
+
+    public GameState snapshot() {
+        GameState state = new GameState(width, height, nextColors.length);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                state.boardColors[row][col] = cells[row * width + col];
+            }
+        }
+        System.arraycopy(nextColors, 0, state.nextColors, 0, nextColors.length);
+        state.score = score;
+        state.randomSaved = random instanceof GameRandom;
+        state.seed = seed;
+        state.randomState = randomState();
+        return state;
+    }
+
+    public void restore(GameState state) {
+        if (state.getWidth() != width || state.getHeight() != height || state.nextColors.length != nextColors.length) {
+            throw new IllegalArgumentException("Cannot restore a " + state.getWidth() + "x" + state.getHeight()
+                    + " game with " + state.nextColors.length + " next colors into " + config);
+        }
+        beginChange();
+        clearBoard();
+        beginBulkUpdate();
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                int color = state.boardColors[row][col];
+                setCell(row, col, color >= 0 && color < colorCount ? color : EMPTY);
+            }
+        }
+        endBulkUpdate();
+        for (int i = 0; i < nextColors.length; i++) {
+            int color = state.nextColors[i];
+            nextColors[i] = color >= 0 && color < colorCount ? color : random.nextInt(colorCount);
+        }
+        score = state.score;
+        if (state.randomSaved && random instanceof GameRandom gameRandom) {
+            seed = state.seed;
+            gameRandom.setState(state.randomState);
+        }
+        clearHistory();
+        if (pendingChange != null) pendingChange.nextColorsChanged();
+        endChange();
+    }
+
+    public long boardHash() {
+        return zobrist.get();
+    }
+
+    public long canonicalBoardHash() {
+        return zobrist.getCanonical();
+    }
+
+    public long positionHash() {
+        return zobrist.get() ^ ZobristHash.sequenceKey(nextColors);
+    }
+
+    public long canonicalPositionHash() {
+        return zobrist.getCanonical() ^ ZobristHash.sequenceKey(nextColors);
+    }
+
+    public void startNewGame(long seed) {
+        random.setSeed(seed);
+        this.seed = seed;
+        startNewGame();
+    }
+
+    public void startNewGame() {
+        beginChange();
+        clearBoard();
+        generateNextColors();
+        spawnNextBalls();
+        clearHistory();
+        endChange();
+    }
+
+    public TurnResult playTurn(int fromRow, int fromCol, int toRow, int toCol) {
+        beginStep();
+        TurnResult result;
+        int points = applyMove(fromRow, fromCol, toRow, toCol);
+        if (points < 0) {
+            result = TurnResult.INVALID;
+        } else if (points > 0) {
+            generateNextColors();
+            result = TurnResult.CLEARED;
+        } else {
+            result = spawnNextBalls() ? TurnResult.PLACED : TurnResult.GAME_OVER;
+        }
+        if (metrics != null && result != TurnResult.INVALID) metrics.add(GameMetrics.Counter.MOVES, 1);
+        endStep();
+        return result;
+    }
+
+    public int applyMove(int fromRow, int fromCol, int toRow, int toCol) {
+        beginStep();
+        int points = -1;
+        if (move(fromRow, fromCol, toRow, toCol)) {
+            touched[0] = toRow * width + toCol;
+            points = clearLinesAt(touched, 1);
+        }
+        endStep();
+        return points;
+    }
+
+    public boolean canMove(int fromRow, int fromCol, int toRow, int toCol) {
+        return isValidCell(fromRow, fromCol) && isValidCell(toRow, toCol)
+                && !isEmpty(fromRow, fromCol) && isEmpty(toRow, toCol)
+                && canReach(fromRow, fromCol, toRow, toCol);
+    }
+
+    public boolean canReach(int fromRow, int fromCol, int toRow, int toCol) {
+        return reachability.canReach(fromRow * width + fromCol, toRow * width + toCol);
+    }
+
+    public int getReachableCells(int row, int col, int[] out) {
+        return reachability.collectReachable(row * width + col, out);
+    }
+
+    public boolean move(int fromRow, int fromCol, int toRow, int toCol) {
+        if (!canMove(fromRow, fromCol, toRow, toCol)) return false;
+        beginChange();
+        setCell(toRow, toCol, cells[fromRow * width + fromCol]);
+        setCell(fromRow, fromCol, EMPTY);
+        if (recorder != null) recorder.moved(fromRow * width + fromCol, toRow * width + toCol);
+        endChange();
+        return true;
+    }
+
+    public boolean spawnNextBalls() {
+        long start = metrics != null ? System.nanoTime() : 0;
+        beginStep();
+        boolean spawned = spawn(nextColors);
+        if (spawned) {
+            generateNextColors();
+            clearLinesAt(touched, touchedCount);
+        }
+        boolean playable = spawned && !isBoardFull();
+        if (!playable && pendingChange != null) pendingChange.gameOver();
+        endStep();
+        if (metrics != null) metrics.record(GameMetrics.Operation.SPAWN, System.nanoTime() - start);
+        return playable;
+    }
+
+    public boolean spawn(int[] colors) {
+        if (countEmpty() < colors.length) {
+            return false;
+        }
+        if (touched.length < colors.length) {
+            touched = new int[colors.length];
+        }
+        beginChange();
+        touchedCount = 0;
+        for (int color : colors) {
+            int index = freeCells.select(random.nextInt(freeCells.size()));
+            setCell(index / width, index % width, color);
+            touched[touchedCount++] = index;
+        }
+        if (recorder != null) recorder.spawned(touched, colors, touchedCount);
+        endChange();
+        return true;
+    }
+
+    public boolean spawnAt(int[] positions, int[] colors, int count) {
+        for (int i = 0; i < count; i++) {
+            if (positions[i] < 0 || positions[i] >= cells.length || cells[positions[i]] != EMPTY) {
+                return false;
+            }
+        }
+        if (touched.length < count) {
+            touched = new int[count];
+        }
+        beginStep();
+        touchedCount = 0;
+        for (int i = 0; i < count; i++) {
+            setCell(positions[i] / width, positions[i] % width, colors[i]);
+            touched[touchedCount++] = positions[i];
+        }
+        if (recorder != null) recorder.spawned(touched, colors, touchedCount);
+        clearLinesAt(touched, touchedCount);
+        endStep();
+        return true;
+    }
+
+    public boolean hasPath(int fromRow, int fromCol, int toRow, int toCol) {
+        return findPath(fromRow, fromCol, toRow, toCol, null) > 0;
+    }
+
+    public int findPath(int fromRow, int fromCol, int toRow, int toCol, int[] path) {
+        if (metrics == null) return router.findPath(fromRow * width + fromCol, toRow * width + toCol, path);
+        long start = System.nanoTime();
+        int length = router.findPath(fromRow * width + fromCol, toRow * width + toCol, path);
+        metrics.record(GameMetrics.Operation.FIND_PATH, System.nanoTime() - start);
+        return length;
+    }
+
+    public int clearLines() {
+        if (metrics == null) return clearAllLines();
+        long start = System.nanoTime();
+        int points = clearAllLines();
+        metrics.record(GameMetrics.Operation.CLEAR_LINES, System.nanoTime() - start);
+        return points;
+    }
+
+    private int clearAllLines() {
+        int cleared = lines.detect();
+        if (cleared == 0) {
+            return 0;
+        }
+
+        beginChange();
+        long[] mask = lines.getClearMask();
+        int stride = lines.getStride();
+        if (clearedCells.length < cleared) {
+            clearedCells = new int[cleared];
+        }
+        int count = 0;
+        for (int word = 0; word < mask.length; word++) {
+            long bits = mask[word];
+            while (bits != 0) {
+                int bit = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                setCell(bit / stride, bit % stride, EMPTY);
+                clearedCells[count++] = bit / stride * width + bit % stride;
+            }
+        }
+
+        int points = cleared * 2 + lines.getCrossCount() * 8;
+        score += points;
+        if (metrics != null) recordClear(cleared, lines.getCrossCount());
+        if (recorder != null) recorder.cleared(clearedCells, count, points);
+        endChange();
+        return points;
+    }
+
+    public int clearLinesAt(int[] changed, int count) {
+        if (metrics == null) return clearLinesThrough(changed, count);
+        long start = System.nanoTime();
+        int points = clearLinesThrough(changed, count);
+        metrics.record(GameMetrics.Operation.CLEAR_LINES, System.nanoTime() - start);
+        return points;
+    }
+
+    private int clearLinesThrough(int[] changed, int count) {
+        int cleared = incrementalLines.detect(changed, count);
+        if (cleared == 0) {
+            return 0;
+        }
+
+        beginChange();
+        int[] marked = incrementalLines.getMarked();
+        for (int i = 0; i < cleared; i++) {
+            setCell(marked[i] / width, marked[i] % width, EMPTY);
+        }
+
+        int points = cleared * 2 + incrementalLines.getCrossCount() * 8;
+        score += points;
+        if (metrics != null) recordClear(cleared, incrementalLines.getCrossCount());
+        if (recorder != null) recorder.cleared(marked, cleared, points);
+        endChange();
+        return points;
+    }
+
+    private void recordClear(int cleared, int crosses) {
+        metrics.add(GameMetrics.Counter.CLEARS, 1);
+        metrics.add(GameMetrics.Counter.BALLS_CLEARED, cleared);
+        metrics.add(GameMetrics.Counter.CROSS_BONUSES, crosses);
+    }
+
+    public int countEmpty() {
+        return freeCells.size();
+    }
+
+    public int getEmptyCell(int position) {
+        return freeCells.get(position);
+    }
+
+    public boolean isBoardFull() {
+        return freeCells.isEmpty();
+    }
+
+    public boolean isValidCell(int row, int col) {
+        return row >= 0 && row < height && col >= 0 && col < width;
+    }
+}
@@ -8,34 +8,76 @@ public class GameFrame extends JFrame {
     private NextColorsPanel nextColorsPanel;
     private JLabel scoreLabel;
     private JLabel highScoreLabel;
+    private JLabel searchLabel;
+    private JLabel seedLabel;
+    private JToggleButton autoPlayButton;
+    private final MoveSearch moveSearch = new MoveSearch(Runtime.getRuntime().availableProcessors(), 20);
+    private boolean searching;
+    private static final long HINT_BUDGET = 500;
+    private static final long AUTO_PLAY_BUDGET = 200;
+    private static final int LEADERBOARD_SIZE = 10;
 
     public GameFrame() {
+        this(GameConfig.DEFAULT);
+    }
+
+    public GameFrame(GameConfig config) {
+        this(new StartupLoader(config));
+    }
+
+    public GameFrame(StartupLoader loader) {
         setTitle("Connect 5 - Color Lines Game");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout());
 
-        scoreManager = new ScoreManager();
-        gameBoard = new GameBoard(scoreManager);
+        scoreManager = loader.getScoreManager();
 
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                gameBoard.saveState();
+                if (gameBoard != null) {
+                    gameBoard.saveState();
+                    gameBoard.flushSave();
+                }
             }
         });
 
+        JLabel loadingLabel = new JLabel("Loading...", SwingConstants.CENTER);
+        loadingLabel.setFont(new Font("Arial", Font.BOLD, 18));
+        add(loadingLabel, BorderLayout.CENTER);
+
+        setExtendedState(JFrame.MAXIMIZED_BOTH);
+        setVisible(true);
+        StartupTimer.mark("frame visible");
+
+        loader.getReady().whenComplete((board, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                loadingLabel.setText("Failed to start: " + cause.getMessage());
+                return;
+            }
+            StartupTimer.run("populate", () -> showBoard(board, loadingLabel));
+            SwingUtilities.invokeLater(StartupTimer::interactive);
+        }));
+    }
+
+    private void showBoard(GameBoard board, JLabel loadingLabel) {
+        gameBoard = board;
+        gameBoard.setTurnListener(() -> {
+            showSeed();
+            autoPlayStep();
+        });
+
+        remove(loadingLabel);
         initializeTopPanel();
         initializeGamePanel();
 
         nextColorsPanel = new NextColorsPanel(gameBoard);
         add(nextColorsPanel, BorderLayout.SOUTH);
 
-        setExtendedState(JFrame.MAXIMIZED_BOTH);
-        setVisible(true);
-
-        if (!gameBoard.loadState()) {
-            gameBoard.startNewGame();
-        }
+        showSeed();
+        revalidate();
+        repaint();
     }
 
     private void initializeTopPanel() {
@@ -52,12 +94,79 @@ public class GameFrame extends JFrame {
             int choice = JOptionPane.showConfirmDialog(this, "Start a new game? Current progress will be lost.", "New Game", JOptionPane.YES_NO_OPTION);
             if (choice == JOptionPane.YES_OPTION) {
                 gameBoard.startNewGame();
+                showSeed();
+                autoPlayStep();
             }
         });
 
         newGameButton.setFocusPainted(false);
         newGameButton.setFont(new Font("Arial", Font.BOLD, 18));
 
+        JButton seedButton = new JButton("Play Seed");
+        seedButton.addActionListener(e -> playSeed());
+        seedButton.setFocusPainted(false);
+        seedButton.setFont(new Font("Arial", Font.BOLD, 18));
+
+        JButton hintButton = new JButton("Hint");
+        hintButton.addActionListener(e -> requestMove(HINT_BUDGET, false));
+        hintButton.setFocusPainted(false);
+        hintButton.setFont(new Font("Arial", Font.BOLD, 18));
+
+        JButton undoButton = new JButton("Undo");
+        undoButton.addActionListener(e -> gameBoard.undo());
+        undoButton.setFocusPainted(false);
+        undoButton.setFont(new Font("Arial", Font.BOLD, 18));
+
+        JButton redoButton = new JButton("Redo");
+        redoButton.addActionListener(e -> gameBoard.redo());
+        redoButton.setFocusPainted(false);
+        redoButton.setFont(new Font("Arial", Font.BOLD, 18));
+
+        InputMap inputMap = getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        int shortcut = Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, shortcut), "undo");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, shortcut), "redo");
+        getRootPane().getActionMap().put("undo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                gameBoard.undo();
+            }
+        });
+        getRootPane().getActionMap().put("redo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                gameBoard.redo();
+            }
+        });
+
+        JButton leaderboardButton = new JButton("Leaderboard");
+        leaderboardButton.addActionListener(e -> showLeaderboard());
+        leaderboardButton.setFocusPainted(false);
+        leaderboardButton.setFont(new Font("Arial", Font.BOLD, 18));
+
+        autoPlayButton = new JToggleButton("Auto Play");
+        autoPlayButton.addActionListener(e -> autoPlayStep());
+        autoPlayButton.setFocusPainted(false);
+        autoPlayButton.setFont(new Font("Arial", Font.BOLD, 18));
+
+        searchLabel = new JLabel(" ");
+        seedLabel = new JLabel(" ");
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        buttonPanel.add(newGameButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(seedButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(undoButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(redoButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(hintButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(autoPlayButton);
+        buttonPanel.add(Box.createHorizontalStrut(10));
+        buttonPanel.add(leaderboardButton);
+
         JPanel topPanel = new JPanel();
         topPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
@@ -75,7 +184,14 @@ public class GameFrame extends JFrame {
 
         gbc.gridy = 2;
         gbc.insets = new Insets(10, 0, 0, 0);
-        topPanel.add(newGameButton, gbc);
+        topPanel.add(buttonPanel, gbc);
+
+        gbc.gridy = 3;
+        gbc.insets = new Insets(5, 0, 0, 0);
+        topPanel.add(searchLabel, gbc);
+
+        gbc.gridy = 4;
+        topPanel.add(seedLabel, gbc);
 
         add(topPanel, BorderLayout.NORTH);
     }
@@ -97,4 +213,74 @@ public class GameFrame extends JFrame {
 
         add(gamePanelContainer, BorderLayout.CENTER);
     }
-}
\ No newline at end of file
+
+    private void playSeed() {
+        String input = JOptionPane.showInputDialog(this, "Seed to play:", gameBoard.getEngine().getSeed());
+        if (input == null) return;
+        long seed;
+        try {
+            seed = Long.parseLong(input.trim());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Not a seed: " + input, "Play Seed", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        gameBoard.startNewGame(seed);
+        showSeed();
+        autoPlayStep();
+    }
+
+    private void showSeed() {
+        seedLabel.setText("Seed: " + gameBoard.getEngine().getSeed());
+    }
+
+    private void showLeaderboard() {
+        Leaderboard leaderboard = scoreManager.getLeaderboard();
+        if (leaderboard == null || leaderboard.size() == 0) {
+            JOptionPane.showMessageDialog(this, "No finished games yet.", "Leaderboard", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        int rank = 1;
+        for (Leaderboard.Entry entry : leaderboard.top(LEADERBOARD_SIZE)) {
+            text.append(rank++).append(". ").append(entry).append('\n');
+        }
+        text.append('\n').append(leaderboard.size()).append(" games played. Current score would rank ")
+                .append(leaderboard.rankOf(scoreManager.getScore())).append('.');
+        JOptionPane.showMessageDialog(this, text.toString(), "Leaderboard", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void autoPlayStep() {
+        if (autoPlayButton.isSelected()) {
+            requestMove(AUTO_PLAY_BUDGET, true);
+        }
+    }
+
+    private void requestMove(long budgetMillis, boolean play) {
+        if (searching || gameBoard.isAnimating()) return;
+        GameEngine snapshot = gameBoard.getEngine().copy();
+        long positionHash = snapshot.positionHash();
+        searching = true;
+        searchLabel.setText("Thinking...");
+        moveSearch.searchAsync(snapshot, budgetMillis).whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            searching = false;
+            if (error != null) {
+                searchLabel.setText("Search failed: " + error.getMessage());
+                return;
+            }
+            if (result == null) {
+                searchLabel.setText("No moves available");
+                return;
+            }
+            searchLabel.setText("Suggested " + result);
+            if (gameBoard.getEngine().positionHash() != positionHash) {
+                autoPlayStep();
+                return;
+            }
+            if (play) {
+                gameBoard.tryMove(result.fromRow, result.fromCol, result.toRow, result.toCol);
+            } else {
+                gameBoard.showHint(result.fromRow, result.fromCol, result.toRow, result.toCol);
+            }
+        }));
+    }
+}
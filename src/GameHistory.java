@@ -0,0 +1,146 @@
+import java.util.Arrays;
+
+public class GameHistory {
+    public static final int MAX_CELLS = 1 << 24;
+    private static final int CELL_MASK = MAX_CELLS - 1;
+    private static final int FILLED = Integer.MIN_VALUE;
+
+    private final int nextCount;
+    private int[] changes = new int[256];
+    private int changeCount;
+    private int[] changeEnds = new int[64];
+    private int[] scoreDeltas = new int[64];
+    private int[] draws = new int[64];
+    private byte[] nextBefore;
+    private byte[] nextAfter;
+    private int steps;
+    private int current;
+    private int scoreBefore;
+    private long randomBefore;
+
+    public GameHistory(int nextCount) {
+        this.nextCount = nextCount;
+        nextBefore = new byte[64 * nextCount];
+        nextAfter = new byte[64 * nextCount];
+    }
+
+    public boolean canUndo() {
+        return current > 0;
+    }
+
+    public boolean canRedo() {
+        return current < steps;
+    }
+
+    public int getUndoCount() {
+        return current;
+    }
+
+    public int getRedoCount() {
+        return steps - current;
+    }
+
+    public void clear() {
+        steps = 0;
+        current = 0;
+        changeCount = 0;
+    }
+
+    public long getMemoryUsage() {
+        return (long) changes.length * 4 + (long) changeEnds.length * 12 + nextBefore.length + nextAfter.length;
+    }
+
+    void begin(int score, int[] next, long randomState) {
+        changeCount = changeFrom(current);
+        if (current == changeEnds.length) {
+            int capacity = current * 2;
+            changeEnds = Arrays.copyOf(changeEnds, capacity);
+            scoreDeltas = Arrays.copyOf(scoreDeltas, capacity);
+            draws = Arrays.copyOf(draws, capacity);
+            nextBefore = Arrays.copyOf(nextBefore, capacity * nextCount);
+            nextAfter = Arrays.copyOf(nextAfter, capacity * nextCount);
+        }
+        store(nextBefore, current, next);
+        scoreBefore = score;
+        randomBefore = randomState;
+    }
+
+    void record(int cell, int color, boolean filled) {
+        if (changeCount == changes.length) {
+            changes = Arrays.copyOf(changes, changeCount * 2);
+        }
+        changes[changeCount++] = (filled ? FILLED : 0) | color << 24 | cell;
+    }
+
+    void end(int score, int[] next, long randomState) {
+        long drawn = GameRandom.distance(randomBefore, randomState);
+        if (changeCount == changeFrom(current) && score == scoreBefore && drawn == 0 && matches(nextBefore, current, next)) {
+            return;
+        }
+        changeEnds[current] = changeCount;
+        scoreDeltas[current] = score - scoreBefore;
+        draws[current] = (int) drawn;
+        store(nextAfter, current, next);
+        steps = ++current;
+    }
+
+    int undoStep() {
+        return --current;
+    }
+
+    int redoStep() {
+        return current++;
+    }
+
+    int changeFrom(int step) {
+        return step == 0 ? 0 : changeEnds[step - 1];
+    }
+
+    int changeTo(int step) {
+        return changeEnds[step];
+    }
+
+    int change(int index) {
+        return changes[index];
+    }
+
+    int scoreDelta(int step) {
+        return scoreDeltas[step];
+    }
+
+    int draws(int step) {
+        return draws[step];
+    }
+
+    void loadNextColors(int step, boolean after, int[] out) {
+        byte[] source = after ? nextAfter : nextBefore;
+        for (int i = 0; i < nextCount; i++) {
+            out[i] = source[step * nextCount + i];
+        }
+    }
+
+    static int cell(int change) {
+        return change & CELL_MASK;
+    }
+
+    static int color(int change) {
+        return change >>> 24 & 0x7F;
+    }
+
+    static boolean filled(int change) {
+        return change < 0;
+    }
+
+    private void store(byte[] target, int step, int[] next) {
+        for (int i = 0; i < nextCount; i++) {
+            target[step * nextCount + i] = (byte) next[i];
+        }
+    }
+
+    private boolean matches(byte[] source, int step, int[] next) {
+        for (int i = 0; i < nextCount; i++) {
+            if (source[step * nextCount + i] != next[i]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,3 @@
+public interface GameListener {
+    void gameChanged(GameChange change);
+}
@@ -0,0 +1,15 @@
+import java.util.Map;
+
+public interface GameMetricsMXBean {
+    Map<String, Long> getCounters();
+
+    Map<String, LatencyHistogram.Snapshot> getLatencies();
+
+    String getReport();
+
+    Map<String, Double> getStartupPhases();
+
+    double getTimeToInteractiveMillis();
+
+    void reset();
+}
@@ -0,0 +1,62 @@
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class GameRandom extends Random {
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final long GOLDEN_INVERSE = 0xF1DE83E19937733DL;
+
+    private long state;
+
+    public GameRandom() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    public GameRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        state = seed;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    public GameRandom split() {
+        return new GameRandom(nextLong());
+    }
+
+    public GameRandom split(long index) {
+        return new GameRandom(mix(state + (index + 1) * GOLDEN));
+    }
+
+    public void skip(long draws) {
+        state += draws * GOLDEN;
+    }
+
+    public static long distance(long from, long to) {
+        return (to - from) * GOLDEN_INVERSE;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        return mix(state += GOLDEN);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
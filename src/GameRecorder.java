@@ -0,0 +1,11 @@
+public interface GameRecorder {
+    void moved(int from, int to);
+
+    void spawned(int[] cells, int[] colors, int count);
+
+    void cleared(int[] cells, int count, int points);
+
+    void nextColorsChanged(int[] colors);
+
+    void randomChanged(long state);
+}
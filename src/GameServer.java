@@ -0,0 +1,186 @@
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class GameServer implements Closeable {
+    public static final String DEFAULT_ADDRESS = "localhost:7377";
+    private static final int BACKLOG = 4096;
+
+    private final GameConfig config;
+    private final ServerSocketChannel server;
+    private final SocketAddress address;
+    private final ExecutorService connections = newConnectionExecutor();
+    private final Set<SocketChannel> clients = ConcurrentHashMap.newKeySet();
+    private final LatencyHistogram moveLatency = new LatencyHistogram();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+
+    public GameServer(GameConfig config, SocketAddress address) throws IOException {
+        this.config = config;
+        if (address instanceof UnixDomainSocketAddress unix) {
+            Files.deleteIfExists(unix.getPath());
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            server = ServerSocketChannel.open();
+            server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        }
+        server.bind(address, BACKLOG);
+        this.address = server.getLocalAddress();
+    }
+
+    public static void main(String[] args) throws Exception {
+        GameConfig config = GameConfig.fromArgs(args);
+        long reportSeconds = Simulator.longArg(args, "report", 10);
+        try (GameServer server = new GameServer(config, parseAddress(Simulator.stringArg(args, "address", DEFAULT_ADDRESS)))) {
+            System.out.println("Color Lines server on " + server.getAddress() + ", " + config
+                    + (isVirtual() ? ", virtual threads" : ", platform threads"));
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "server-report");
+                thread.setDaemon(true);
+                return thread;
+            });
+            if (reportSeconds > 0) {
+                reporter.scheduleAtFixedRate(() -> System.out.println(server.report()), reportSeconds, reportSeconds, TimeUnit.SECONDS);
+            }
+            server.serve();
+        }
+    }
+
+    public static SocketAddress parseAddress(String address) {
+        if (address.startsWith("unix:")) {
+            return UnixDomainSocketAddress.of(address.substring("unix:".length()));
+        }
+        int colon = address.lastIndexOf(':');
+        if (colon < 0) {
+            return new InetSocketAddress("localhost", Integer.parseInt(address));
+        }
+        return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+    }
+
+    public static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    public static boolean isVirtual() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    public int getSessionCount() {
+        return sessions.get();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public LatencyHistogram getMoveLatency() {
+        return moveLatency;
+    }
+
+    public String report() {
+        return "sessions " + sessions.get() + ", accepted " + accepted.sum() + ", moves " + moveLatency.snapshot();
+    }
+
+    public void serve() throws IOException {
+        while (server.isOpen()) {
+            SocketChannel client;
+            try {
+                client = server.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            accepted.increment();
+            clients.add(client);
+            connections.execute(() -> handle(client));
+        }
+    }
+
+    public Thread serveInBackground() {
+        Thread thread = new Thread(() -> {
+            try {
+                serve();
+            } catch (IOException e) {
+                System.err.println("Server stopped: " + e.getMessage());
+            }
+        }, "server-accept");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private void handle(SocketChannel client) {
+        sessions.incrementAndGet();
+        try (client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(client), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(client), StandardCharsets.UTF_8))) {
+            if (client.getRemoteAddress() instanceof InetSocketAddress) {
+                client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            GameSession session = new GameSession(config, moveLatency);
+            String line;
+            while (!session.isClosed() && (line = in.readLine()) != null) {
+                out.write(session.handle(line));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            if (server.isOpen()) {
+                System.err.println("Connection " + describe(client) + " closed: " + e);
+            }
+        } finally {
+            clients.remove(client);
+            sessions.decrementAndGet();
+        }
+    }
+
+    private static String describe(SocketChannel client) {
+        try {
+            SocketAddress remote = client.getRemoteAddress();
+            return remote != null ? remote.toString() : "(local)";
+        } catch (IOException e) {
+            return "(closed)";
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (SocketChannel client : clients) {
+            client.close();
+        }
+        connections.shutdown();
+        if (address instanceof UnixDomainSocketAddress unix) {
+            Files.deleteIfExists(unix.getPath());
+        }
+    }
+}
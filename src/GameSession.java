@@ -0,0 +1,97 @@
+public class GameSession {
+    private final GameEngine engine;
+    private final LatencyHistogram moveLatency;
+    private boolean gameOver;
+    private boolean closed;
+
+    public GameSession(GameConfig config, LatencyHistogram moveLatency) {
+        this.moveLatency = moveLatency;
+        engine = new GameEngine(config, new GameRandom());
+        engine.setHistoryEnabled(true);
+        engine.setMetrics(GameMetrics.get());
+        startNewGame(new GameRandom().nextLong());
+    }
+
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public String handle(String line) {
+        String[] words = line.trim().split("\\s+");
+        try {
+            return switch (words[0].toUpperCase()) {
+                case "NEW" -> startNewGame(words.length > 1 ? Long.parseLong(words[1]) : new GameRandom().nextLong());
+                case "MOVE" -> move(words);
+                case "UNDO" -> undo();
+                case "BOARD" -> "OK " + board();
+                case "NEXT" -> "OK " + next();
+                case "SCORE" -> "OK " + engine.getScore();
+                case "QUIT" -> {
+                    closed = true;
+                    yield "OK bye";
+                }
+                default -> "ERR unknown command: " + words[0];
+            };
+        } catch (NumberFormatException e) {
+            return "ERR not a number: " + e.getMessage();
+        }
+    }
+
+    private String startNewGame(long seed) {
+        engine.startNewGame(seed);
+        gameOver = false;
+        return "OK " + seed;
+    }
+
+    private String move(String[] words) {
+        if (words.length != 5) return "ERR usage: MOVE fromRow fromCol toRow toCol";
+        if (gameOver) return "ERR game over";
+        int fromRow = Integer.parseInt(words[1]);
+        int fromCol = Integer.parseInt(words[2]);
+        int toRow = Integer.parseInt(words[3]);
+        int toCol = Integer.parseInt(words[4]);
+        long start = System.nanoTime();
+        GameEngine.TurnResult result = engine.isValidCell(fromRow, fromCol) && engine.isValidCell(toRow, toCol)
+                ? engine.playTurn(fromRow, fromCol, toRow, toCol) : GameEngine.TurnResult.INVALID;
+        if (moveLatency != null) moveLatency.record(System.nanoTime() - start);
+        if (result == GameEngine.TurnResult.INVALID) return "ERR invalid move";
+        gameOver = result == GameEngine.TurnResult.GAME_OVER;
+        return "OK " + result + " " + engine.getScore();
+    }
+
+    private String undo() {
+        if (!engine.undo()) return "ERR nothing to undo";
+        gameOver = false;
+        return "OK " + engine.getScore();
+    }
+
+    private String board() {
+        StringBuilder cells = new StringBuilder(engine.getWidth() * engine.getHeight() * 2 + 16);
+        cells.append(engine.getWidth()).append(' ').append(engine.getHeight());
+        for (int row = 0; row < engine.getHeight(); row++) {
+            for (int col = 0; col < engine.getWidth(); col++) {
+                int color = engine.getColor(row, col);
+                cells.append(' ');
+                if (color == GameEngine.EMPTY) {
+                    cells.append('.');
+                } else {
+                    cells.append(color);
+                }
+            }
+        }
+        return cells.toString();
+    }
+
+    private String next() {
+        StringBuilder colors = new StringBuilder();
+        for (int color : engine.getNextColors()) {
+            if (colors.length() > 0) colors.append(' ');
+            colors.append(color);
+        }
+        return colors.toString();
+    }
+}
@@ -1,19 +1,64 @@
 import java.io.Serializable;
 
-public class GameState implements Serializable {
+public class GameState implements Serializable, BoardView {
+    private static final long serialVersionUID = -2345168638890961287L;
+
     public static final int SIZE = 9;
     public int[][] boardColors;
     public int[] nextColors;
     public int score;
     public int highScore;
+    public int moves;
+    public long playMillis;
+    public boolean randomSaved;
+    public long seed;
+    public long randomState;
+    public int width;
+    public int height;
 
     public GameState() {
-        boardColors = new int[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++)
-            for (int j = 0; j < SIZE; j++)
+        this(SIZE, SIZE, 3);
+    }
+
+    public GameState(int width, int height, int nextCount) {
+        this.width = width;
+        this.height = height;
+        boardColors = new int[height][width];
+        for (int i = 0; i < height; i++)
+            for (int j = 0; j < width; j++)
                 boardColors[i][j] = -1;
-        nextColors = new int[3];
+        nextColors = new int[nextCount];
         score = 0;
         highScore = 0;
     }
+
+    @Override
+    public int getWidth() {
+        return width > 0 ? width : boardColors[0].length;
+    }
+
+    @Override
+    public int getHeight() {
+        return height > 0 ? height : boardColors.length;
+    }
+
+    @Override
+    public int getColor(int row, int col) {
+        return boardColors[row][col];
+    }
+
+    @Override
+    public int getNextColorCount() {
+        return nextColors.length;
+    }
+
+    @Override
+    public int getNextColor(int index) {
+        return nextColors[index];
+    }
+
+    @Override
+    public int getScore() {
+        return score;
+    }
 }
@@ -0,0 +1,58 @@
+import java.util.Random;
+
+public class GreedyMovePolicy implements MovePolicy {
+    private static final int[] ROW_STEP = {0, 1, 1, 1};
+    private static final int[] COL_STEP = {1, 0, 1, -1};
+
+    @Override
+    public boolean chooseMove(GameEngine engine, Random random, int[] move) {
+        int width = engine.getWidth();
+        int cellCount = engine.getConfig().getCellCount();
+        int empty = engine.countEmpty();
+        int bestScore = -1;
+        int ties = 0;
+
+        for (int from = 0; from < cellCount; from++) {
+            int fromRow = from / width, fromCol = from % width;
+            int color = engine.getColor(fromRow, fromCol);
+            if (color == GameEngine.EMPTY) continue;
+            for (int k = 0; k < empty; k++) {
+                int to = engine.getEmptyCell(k);
+                int toRow = to / width, toCol = to % width;
+                if (!engine.canReach(fromRow, fromCol, toRow, toCol)) continue;
+                int score = longestRun(engine, from, toRow, toCol, color);
+                if (score > bestScore) {
+                    bestScore = score;
+                    ties = 1;
+                    RandomMovePolicy.setMove(move, from, to, width);
+                } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                    RandomMovePolicy.setMove(move, from, to, width);
+                }
+            }
+        }
+        return bestScore >= 0;
+    }
+
+    static int longestRun(GameEngine engine, int from, int row, int col, int color) {
+        int best = 0;
+        for (int dir = 0; dir < 4; dir++) {
+            int length = 1 + runLength(engine, from, row, col, ROW_STEP[dir], COL_STEP[dir], color)
+                    + runLength(engine, from, row, col, -ROW_STEP[dir], -COL_STEP[dir], color);
+            best = Math.max(best, length);
+        }
+        return best;
+    }
+
+    private static int runLength(GameEngine engine, int from, int row, int col, int dRow, int dCol, int color) {
+        int width = engine.getWidth();
+        int length = 0;
+        row += dRow;
+        col += dCol;
+        while (engine.isValidCell(row, col) && row * width + col != from && engine.getColor(row, col) == color) {
+            length++;
+            row += dRow;
+            col += dCol;
+        }
+        return length;
+    }
+}
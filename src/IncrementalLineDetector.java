@@ -0,0 +1,124 @@
+import java.util.Arrays;
+
+public class IncrementalLineDetector {
+    private static final int[] ROW_STEP = {0, 1, 1, 1};
+    private static final int[] COL_STEP = {1, 0, 1, -1};
+    private static final int CROSS_SIZE = 5;
+
+    private final byte[] cells;
+    private final int width;
+    private final int height;
+    private final int connectCount;
+    private final int[] markStamp;
+    private final int[] crossStamp;
+    private final int[] marked;
+    private int stamp;
+    private int markedCount;
+    private int crossCount;
+
+    public IncrementalLineDetector(byte[] cells, int width, int height, int connectCount) {
+        this.cells = cells;
+        this.width = width;
+        this.height = height;
+        this.connectCount = connectCount;
+        markStamp = new int[cells.length];
+        crossStamp = new int[cells.length];
+        marked = new int[cells.length];
+    }
+
+    public int[] getMarked() {
+        return marked;
+    }
+
+    public int getMarkedCount() {
+        return markedCount;
+    }
+
+    public int getCrossCount() {
+        return crossCount;
+    }
+
+    public int detect(int[] changed, int count) {
+        nextStamp();
+        markedCount = 0;
+        crossCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            int index = changed[i];
+            int color = cells[index];
+            if (color == GameEngine.EMPTY) continue;
+            int row = index / width;
+            int col = index % width;
+            for (int dir = 0; dir < 4; dir++) {
+                int back = runLength(row, col, -ROW_STEP[dir], -COL_STEP[dir], color);
+                int forward = runLength(row, col, ROW_STEP[dir], COL_STEP[dir], color);
+                if (back + forward + 1 >= connectCount) {
+                    markRun(row - back * ROW_STEP[dir], col - back * COL_STEP[dir], dir, back + forward + 1);
+                }
+            }
+        }
+
+        if (markedCount >= CROSS_SIZE) {
+            detectCrossPatterns();
+        }
+        return markedCount;
+    }
+
+    private int runLength(int row, int col, int dRow, int dCol, int color) {
+        int length = 0;
+        row += dRow;
+        col += dCol;
+        while (row >= 0 && row < height && col >= 0 && col < width && cells[row * width + col] == color) {
+            length++;
+            row += dRow;
+            col += dCol;
+        }
+        return length;
+    }
+
+    private void markRun(int row, int col, int dir, int length) {
+        for (int i = 0; i < length; i++) {
+            int index = (row + i * ROW_STEP[dir]) * width + col + i * COL_STEP[dir];
+            if (markStamp[index] != stamp) {
+                markStamp[index] = stamp;
+                marked[markedCount++] = index;
+            }
+        }
+    }
+
+    private void detectCrossPatterns() {
+        for (int i = 0; i < markedCount; i++) {
+            int index = marked[i];
+            int row = index / width;
+            int col = index % width;
+            if (row > 0 && row < height - 1 && col > 0 && col < width - 1
+                    && isMarked(index - width) && isMarked(index + width)
+                    && isMarked(index - 1) && isMarked(index + 1)) {
+                markCross(index);
+                markCross(index - width);
+                markCross(index + width);
+                markCross(index - 1);
+                markCross(index + 1);
+            }
+        }
+    }
+
+    private boolean isMarked(int index) {
+        return markStamp[index] == stamp;
+    }
+
+    private void markCross(int index) {
+        if (crossStamp[index] != stamp) {
+            crossStamp[index] = stamp;
+            crossCount++;
+        }
+    }
+
+    private void nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(markStamp, 0);
+            Arrays.fill(crossStamp, 0);
+            stamp = 1;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class Leaderboard implements Closeable {
+    public static final int MAGIC = 0x434C4C42;
+    public static final int INDEX_MAGIC = 0x434C4C49;
+    public static final int VERSION = 1;
+    public static final int RECORD_SIZE = 64;
+    public static final int MAX_NAME_BYTES = RECORD_SIZE - 26;
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 8;
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private static final int SHIFT_CHUNK = 1 << 16;
+
+    public static class Entry {
+        public final String player;
+        public final int score;
+        public final int moves;
+        public final long durationMillis;
+        public final long timestamp;
+
+        public Entry(String player, int score, int moves, long durationMillis, long timestamp) {
+            this.player = player;
+            this.score = score;
+            this.moves = moves;
+            this.durationMillis = durationMillis;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public String toString() {
+            return player + " " + score + " (" + moves + " moves, " + durationMillis / 1000 + " s)";
+        }
+    }
+
+    private final FileChannel records;
+    private final FileChannel index;
+    private MappedByteBuffer recordBuffer;
+    private MappedByteBuffer indexBuffer;
+    private final byte[] shift = new byte[SHIFT_CHUNK];
+    private int count;
+
+    public Leaderboard(File file) throws IOException {
+        records = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = FileChannel.open(new File(file.getPath() + ".idx").toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock lock = records.lock();
+        try {
+            recordBuffer = records.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(HEADER_SIZE + INITIAL_CAPACITY * RECORD_SIZE, records.size()));
+            indexBuffer = index.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(HEADER_SIZE + INITIAL_CAPACITY * ENTRY_SIZE, index.size()));
+            if (recordBuffer.getInt(0) != MAGIC || recordBuffer.getInt(4) != VERSION) {
+                recordBuffer.putInt(0, MAGIC);
+                recordBuffer.putInt(4, VERSION);
+                recordBuffer.putInt(8, 0);
+            }
+            refresh(false);
+        } finally {
+            lock.release();
+        }
+    }
+
+    public synchronized int size() {
+        return locked(true, () -> count);
+    }
+
+    public synchronized int add(Entry entry) {
+        return locked(false, () -> append(entry));
+    }
+
+    private int append(Entry entry) {
+        if (count == Integer.MAX_VALUE / RECORD_SIZE) {
+            throw new IllegalStateException("Leaderboard is full");
+        }
+        recordBuffer = ensureCapacity(records, recordBuffer, HEADER_SIZE + (long) (count + 1) * RECORD_SIZE);
+        indexBuffer = ensureCapacity(index, indexBuffer, HEADER_SIZE + (long) (count + 1) * ENTRY_SIZE);
+        writeRecord(count, entry);
+
+        int rank = findRank(entry.score);
+        int position = rank - 1;
+        while (position < count && scoreAt(position) == entry.score) {
+            position++;
+        }
+        int from = HEADER_SIZE + position * ENTRY_SIZE;
+        for (int end = HEADER_SIZE + count * ENTRY_SIZE; end > from; ) {
+            int length = Math.min(SHIFT_CHUNK, end - from);
+            end -= length;
+            indexBuffer.get(end, shift, 0, length);
+            indexBuffer.put(end + ENTRY_SIZE, shift, 0, length);
+        }
+        indexBuffer.putInt(from, entry.score);
+        indexBuffer.putInt(from + 4, count);
+
+        count++;
+        recordBuffer.putInt(8, count);
+        indexBuffer.putInt(8, count);
+        return rank;
+    }
+
+    public synchronized void addAll(Collection<Entry> entries) {
+        locked(false, () -> {
+            if ((long) count + entries.size() > Integer.MAX_VALUE / RECORD_SIZE) {
+                throw new IllegalStateException("Leaderboard is full");
+            }
+            recordBuffer = ensureCapacity(records, recordBuffer, HEADER_SIZE + (long) (count + entries.size()) * RECORD_SIZE);
+            for (Entry entry : entries) {
+                writeRecord(count++, entry);
+            }
+            recordBuffer.putInt(8, count);
+            rebuildIndex();
+            return null;
+        });
+    }
+
+    public synchronized List<Entry> top(int limit) {
+        return locked(true, () -> {
+            int size = Math.min(limit, count);
+            List<Entry> entries = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                entries.add(entryAt(i));
+            }
+            return entries;
+        });
+    }
+
+    public synchronized Entry get(int rank) {
+        return locked(true, () -> {
+            if (rank < 0 || rank >= count) {
+                throw new IndexOutOfBoundsException("Rank " + rank + " of " + count);
+            }
+            return entryAt(rank);
+        });
+    }
+
+    public synchronized int rankOf(int score) {
+        return locked(true, () -> findRank(score));
+    }
+
+    public synchronized int getBestScore() {
+        return locked(true, () -> count == 0 ? 0 : scoreAt(0));
+    }
+
+    public synchronized void force() {
+        recordBuffer.force();
+        indexBuffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        records.close();
+        index.close();
+    }
+
+    private <T> T locked(boolean shared, Supplier<T> action) {
+        try {
+            FileLock lock = records.lock(0, Long.MAX_VALUE, shared);
+            try {
+                if (!refresh(shared)) {
+                    lock.release();
+                    lock = records.lock();
+                    refresh(false);
+                }
+                return action.get();
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to access leaderboard", e);
+        }
+    }
+
+    private int findRank(int score) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (scoreAt(middle) > score) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low + 1;
+    }
+
+    private boolean refresh(boolean shared) throws IOException {
+        if (records.size() > recordBuffer.capacity()) {
+            recordBuffer = records.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(records.size(), Integer.MAX_VALUE));
+        }
+        if (index.size() > indexBuffer.capacity()) {
+            indexBuffer = index.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(index.size(), Integer.MAX_VALUE));
+        }
+        count = Math.max(0, Math.min(recordBuffer.getInt(8), (recordBuffer.capacity() - HEADER_SIZE) / RECORD_SIZE));
+        if (indexBuffer.getInt(0) != INDEX_MAGIC || indexBuffer.getInt(4) != VERSION || indexBuffer.getInt(8) != count) {
+            if (shared) return false;
+            rebuildIndex();
+        }
+        return true;
+    }
+
+    private Entry entryAt(int rank) {
+        return readRecord(indexBuffer.getInt(HEADER_SIZE + rank * ENTRY_SIZE + 4));
+    }
+
+    private int scoreAt(int rank) {
+        return indexBuffer.getInt(HEADER_SIZE + rank * ENTRY_SIZE);
+    }
+
+    private void writeRecord(int record, Entry entry) {
+        int offset = HEADER_SIZE + record * RECORD_SIZE;
+        byte[] name = encodeName(entry.player);
+        recordBuffer.putInt(offset, entry.score);
+        recordBuffer.putInt(offset + 4, entry.moves);
+        recordBuffer.putLong(offset + 8, entry.durationMillis);
+        recordBuffer.putLong(offset + 16, entry.timestamp);
+        recordBuffer.putShort(offset + 24, (short) name.length);
+        recordBuffer.put(offset + 26, name);
+    }
+
+    private Entry readRecord(int record) {
+        int offset = HEADER_SIZE + record * RECORD_SIZE;
+        byte[] name = new byte[Math.max(0, Math.min(MAX_NAME_BYTES, recordBuffer.getShort(offset + 24)))];
+        recordBuffer.get(offset + 26, name);
+        return new Entry(new String(name, StandardCharsets.UTF_8), recordBuffer.getInt(offset), recordBuffer.getInt(offset + 4),
+                recordBuffer.getLong(offset + 8), recordBuffer.getLong(offset + 16));
+    }
+
+    private static byte[] encodeName(String player) {
+        byte[] name = (player == null ? "" : player).getBytes(StandardCharsets.UTF_8);
+        if (name.length <= MAX_NAME_BYTES) return name;
+        int length = MAX_NAME_BYTES;
+        while (length > 0 && (name[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return Arrays.copyOf(name, length);
+    }
+
+    private void rebuildIndex() {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            int score = recordBuffer.getInt(HEADER_SIZE + i * RECORD_SIZE);
+            keys[i] = (long) ~score << 32 | i;
+        }
+        Arrays.sort(keys);
+        indexBuffer = ensureCapacity(index, indexBuffer, HEADER_SIZE + (long) count * ENTRY_SIZE);
+        for (int i = 0; i < count; i++) {
+            indexBuffer.putInt(HEADER_SIZE + i * ENTRY_SIZE, recordBuffer.getInt(HEADER_SIZE + (int) keys[i] * RECORD_SIZE));
+            indexBuffer.putInt(HEADER_SIZE + i * ENTRY_SIZE + 4, (int) keys[i]);
+        }
+        indexBuffer.putInt(0, INDEX_MAGIC);
+        indexBuffer.putInt(4, VERSION);
+        indexBuffer.putInt(8, count);
+    }
+
+    private static MappedByteBuffer ensureCapacity(FileChannel channel, MappedByteBuffer buffer, long needed) {
+        if (needed <= buffer.capacity()) return buffer;
+        long capacity = buffer.capacity();
+        while (needed > capacity) {
+            capacity *= 2;
+        }
+        capacity = Math.min(capacity, Integer.MAX_VALUE);
+        try {
+            buffer.force();
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to grow leaderboard", e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+import java.util.Arrays;
+
+public class LineDetector {
+    private final int stride;
+    private final int connectCount;
+    private final int words;
+    private final long lastWordMask;
+    private final long[][] colorBits;
+    private final int[] colorCounts;
+    private final long[] run;
+    private final long[] clearMask;
+    private final long[] center;
+    private final long[] crossMask;
+    private final int[] shifts;
+    private int crossCount;
+
+    public LineDetector(int width, int height, int colors, int connectCount) {
+        this.connectCount = connectCount;
+        stride = width + 1;
+        int bits = height * stride;
+        words = (bits + 63) >>> 6;
+        lastWordMask = (bits & 63) == 0 ? -1L : (1L << (bits & 63)) - 1;
+        colorBits = new long[colors][words];
+        colorCounts = new int[colors];
+        run = new long[words];
+        clearMask = new long[words];
+        center = new long[words];
+        crossMask = new long[words];
+        shifts = new int[]{1, stride, stride + 1, stride - 1};
+    }
+
+    public int getStride() {
+        return stride;
+    }
+
+    public long[] getClearMask() {
+        return clearMask;
+    }
+
+    public long[] getCrossMask() {
+        return crossMask;
+    }
+
+    public int getCrossCount() {
+        return crossCount;
+    }
+
+    public void set(int row, int col, int color) {
+        int bit = row * stride + col;
+        colorBits[color][bit >>> 6] |= 1L << bit;
+        colorCounts[color]++;
+    }
+
+    public void unset(int row, int col, int color) {
+        int bit = row * stride + col;
+        colorBits[color][bit >>> 6] &= ~(1L << bit);
+        colorCounts[color]--;
+    }
+
+    public void clear() {
+        for (int color = 0; color < colorBits.length; color++) {
+            Arrays.fill(colorBits[color], 0L);
+            colorCounts[color] = 0;
+        }
+    }
+
+    public int detect() {
+        Arrays.fill(clearMask, 0L);
+        Arrays.fill(crossMask, 0L);
+        crossCount = 0;
+
+        boolean any = false;
+        for (int color = 0; color < colorBits.length; color++) {
+            if (colorCounts[color] < connectCount) continue;
+            long[] bits = colorBits[color];
+            for (int shift : shifts) {
+                any |= markRuns(bits, shift);
+            }
+        }
+        if (!any) {
+            return 0;
+        }
+
+        detectCrossPatterns();
+        int cleared = 0;
+        for (int i = 0; i < words; i++) {
+            cleared += Long.bitCount(clearMask[i]);
+            crossCount += Long.bitCount(crossMask[i]);
+        }
+        return cleared;
+    }
+
+    private boolean markRuns(long[] bits, int shift) {
+        System.arraycopy(bits, 0, run, 0, words);
+        for (int i = 1; i < connectCount; i++) {
+            if (!andShiftDown(run, bits, i * shift)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < connectCount; i++) {
+            orShiftUp(clearMask, run, i * shift);
+        }
+        return true;
+    }
+
+    void detectCrossPatterns() {
+        System.arraycopy(clearMask, 0, center, 0, words);
+        andShiftDown(center, clearMask, 1);
+        andShiftUp(center, clearMask, 1);
+        andShiftDown(center, clearMask, stride);
+        if (!andShiftUp(center, clearMask, stride)) {
+            return;
+        }
+        System.arraycopy(center, 0, crossMask, 0, words);
+        orShiftUp(crossMask, center, 1);
+        orShiftDown(crossMask, center, 1);
+        orShiftUp(crossMask, center, stride);
+        orShiftDown(crossMask, center, stride);
+        crossMask[words - 1] &= lastWordMask;
+    }
+
+    private long shiftedDown(long[] src, int wordShift, int bitShift, int i) {
+        int j = i + wordShift;
+        long value = j < words ? src[j] >>> bitShift : 0L;
+        if (bitShift != 0 && j + 1 < words) {
+            value |= src[j + 1] << (64 - bitShift);
+        }
+        return value;
+    }
+
+    private long shiftedUp(long[] src, int wordShift, int bitShift, int i) {
+        int j = i - wordShift;
+        long value = j >= 0 ? src[j] << bitShift : 0L;
+        if (bitShift != 0 && j - 1 >= 0) {
+            value |= src[j - 1] >>> (64 - bitShift);
+        }
+        return value;
+    }
+
+    private boolean andShiftDown(long[] acc, long[] src, int n) {
+        long any = 0;
+        for (int i = 0; i < words; i++) {
+            acc[i] &= shiftedDown(src, n >>> 6, n & 63, i);
+            any |= acc[i];
+        }
+        return any != 0;
+    }
+
+    private boolean andShiftUp(long[] acc, long[] src, int n) {
+        long any = 0;
+        for (int i = 0; i < words; i++) {
+            acc[i] &= shiftedUp(src, n >>> 6, n & 63, i);
+            any |= acc[i];
+        }
+        return any != 0;
+    }
+
+    private void orShiftDown(long[] acc, long[] src, int n) {
+        for (int i = 0; i < words; i++) {
+            acc[i] |= shiftedDown(src, n >>> 6, n & 63, i);
+        }
+    }
+
+    private void orShiftUp(long[] acc, long[] src, int n) {
+        for (int i = 0; i < words; i++) {
+            acc[i] |= shiftedUp(src, n >>> 6, n & 63, i);
+        }
+    }
+}
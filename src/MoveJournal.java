@@ -0,0 +1,296 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+public class MoveJournal implements GameRecorder, Closeable {
+    public static final int MAGIC = 0x434C4A52;
+    public static final int VERSION = 1;
+    public static final byte CHECKPOINT = 1;
+    public static final byte MOVE = 2;
+    public static final byte SPAWN = 3;
+    public static final byte CLEAR = 4;
+    public static final byte NEXT = 5;
+    public static final byte RANDOM = 6;
+    private static final int HEADER_SIZE = 16;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int RECORD_OVERHEAD = 4 + 1 + 4 + 4;
+
+    private final FileChannel channel;
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer buffer;
+    private int position;
+    private int lastCheckpoint = -1;
+    private int movesSinceCheckpoint;
+    private int recordStart;
+
+    public MoveJournal(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_CAPACITY, channel.size()));
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            initialize();
+        } else {
+            scan();
+        }
+    }
+
+    public void reset(GameState initial) {
+        initialize();
+        checkpoint(initial);
+    }
+
+    public void checkpoint(GameState state) {
+        ByteBuffer encoded = SaveFormat.encode(state);
+        int offset = begin(CHECKPOINT, encoded.remaining());
+        buffer.put(offset, encoded, 0, encoded.remaining());
+        commit(offset + encoded.remaining());
+        lastCheckpoint = recordStart;
+        movesSinceCheckpoint = 0;
+    }
+
+    public int getMovesSinceCheckpoint() {
+        return movesSinceCheckpoint;
+    }
+
+    public int size() {
+        return position;
+    }
+
+    public GameState recover() throws IOException {
+        return lastCheckpoint < 0 ? null : readCheckpoint(buffer, lastCheckpoint);
+    }
+
+    public int replayTail(GameEngine engine) throws IOException {
+        return lastCheckpoint < 0 ? 0 : replay(buffer, lastCheckpoint, position, engine);
+    }
+
+    public static int replay(File file, GameEngine engine) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a Color Lines journal");
+            }
+            int end = scanEnd(buffer, new CRC32());
+            if (end <= HEADER_SIZE || type(buffer, HEADER_SIZE) != CHECKPOINT) {
+                throw new IOException("Journal does not start with a checkpoint");
+            }
+            return replay(buffer, HEADER_SIZE, end, engine);
+        }
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    @Override
+    public void moved(int from, int to) {
+        int offset = begin(MOVE, 8);
+        buffer.putInt(offset, from);
+        buffer.putInt(offset + 4, to);
+        commit(offset + 8);
+        movesSinceCheckpoint++;
+    }
+
+    @Override
+    public void spawned(int[] cells, int[] colors, int count) {
+        int offset = begin(SPAWN, 2 + count * 5);
+        buffer.putShort(offset, (short) count);
+        offset += 2;
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(offset, cells[i]);
+            buffer.put(offset + 4, (byte) colors[i]);
+            offset += 5;
+        }
+        commit(offset);
+    }
+
+    @Override
+    public void cleared(int[] cells, int count, int points) {
+        int offset = begin(CLEAR, 8 + count * 4);
+        buffer.putInt(offset, points);
+        buffer.putInt(offset + 4, count);
+        offset += 8;
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(offset, cells[i]);
+            offset += 4;
+        }
+        commit(offset);
+    }
+
+    @Override
+    public void nextColorsChanged(int[] colors) {
+        int offset = begin(NEXT, 2 + colors.length);
+        buffer.putShort(offset, (short) colors.length);
+        for (int i = 0; i < colors.length; i++) {
+            buffer.put(offset + 2 + i, (byte) colors[i]);
+        }
+        commit(offset + 2 + colors.length);
+    }
+
+    @Override
+    public void randomChanged(long state) {
+        int offset = begin(RANDOM, 8);
+        buffer.putLong(offset, state);
+        commit(offset + 8);
+    }
+
+    private void initialize() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, 0);
+        buffer.putInt(HEADER_SIZE, 0);
+        position = HEADER_SIZE;
+        lastCheckpoint = -1;
+        movesSinceCheckpoint = 0;
+    }
+
+    private void scan() {
+        position = HEADER_SIZE;
+        int end = scanEnd(buffer, crc);
+        while (position < end) {
+            byte type = type(buffer, position);
+            if (type == CHECKPOINT) {
+                lastCheckpoint = position;
+                movesSinceCheckpoint = 0;
+            } else if (type == MOVE) {
+                movesSinceCheckpoint++;
+            }
+            position = next(buffer, position);
+        }
+    }
+
+    private int begin(byte type, int payload) {
+        ensureCapacity(RECORD_OVERHEAD + payload);
+        recordStart = position;
+        buffer.put(position + 4, type);
+        return position + 5;
+    }
+
+    private void commit(int end) {
+        int length = end - recordStart - 4;
+        buffer.putInt(end, checksum(buffer, crc, recordStart + 4, end));
+        buffer.putInt(end + 4, 0);
+        buffer.putInt(recordStart, length);
+        position = end + 4;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (position + needed <= buffer.capacity()) return;
+        long capacity = buffer.capacity();
+        while (position + needed > capacity) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Journal exceeds " + Integer.MAX_VALUE + " bytes");
+        }
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to grow journal", e);
+        }
+    }
+
+    private static int scanEnd(ByteBuffer buffer, CRC32 crc) {
+        int offset = HEADER_SIZE;
+        while (offset + RECORD_OVERHEAD <= buffer.limit()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || (long) offset + 8 + length > buffer.limit()) break;
+            int end = offset + 4 + length;
+            if (checksum(buffer, crc, offset + 4, end) != buffer.getInt(end)) break;
+            offset = end + 4;
+        }
+        return offset;
+    }
+
+    private static int next(ByteBuffer buffer, int record) {
+        return record + 8 + buffer.getInt(record);
+    }
+
+    private static byte type(ByteBuffer buffer, int record) {
+        return buffer.get(record + 4);
+    }
+
+    private static GameState readCheckpoint(ByteBuffer buffer, int record) throws IOException {
+        int length = buffer.getInt(record);
+        return SaveFormat.decode(buffer.duplicate().limit(record + 4 + length).position(record + 5).slice());
+    }
+
+    private static int replay(ByteBuffer buffer, int from, int to, GameEngine engine) throws IOException {
+        GameRecorder recorder = engine.getRecorder();
+        engine.setRecorder(null);
+        try {
+            engine.restore(readCheckpoint(buffer, from));
+            int width = engine.getWidth();
+            int moves = 0;
+            int[] cells = new int[0];
+            int[] colors = new int[0];
+            int[] next = new int[engine.getNextColors().length];
+            int offset = next(buffer, from);
+            while (offset < to) {
+                int payload = offset + 5;
+                switch (type(buffer, offset)) {
+                    case CHECKPOINT -> engine.restore(readCheckpoint(buffer, offset));
+                    case MOVE -> {
+                        int source = buffer.getInt(payload);
+                        int target = buffer.getInt(payload + 4);
+                        if (engine.applyMove(source / width, source % width, target / width, target % width) < 0) {
+                            throw new IOException("Journal move " + source + " -> " + target + " is not legal");
+                        }
+                        moves++;
+                    }
+                    case SPAWN -> {
+                        int count = buffer.getShort(payload);
+                        if (cells.length < count) {
+                            cells = new int[count];
+                            colors = new int[count];
+                        }
+                        for (int i = 0; i < count; i++) {
+                            cells[i] = buffer.getInt(payload + 2 + i * 5);
+                            colors[i] = buffer.get(payload + 6 + i * 5);
+                        }
+                        if (!engine.spawnAt(cells, colors, count)) {
+                            throw new IOException("Journal spawn does not fit the board");
+                        }
+                    }
+                    case NEXT -> {
+                        if (buffer.getShort(payload) != next.length) {
+                            throw new IOException("Journal next colors do not match the game");
+                        }
+                        for (int i = 0; i < next.length; i++) {
+                            next[i] = buffer.get(payload + 2 + i);
+                        }
+                        engine.setNextColors(next);
+                    }
+                    case RANDOM -> {
+                        if (engine.getRandom() instanceof GameRandom random) {
+                            random.setState(buffer.getLong(payload));
+                        }
+                    }
+                    default -> {
+                    }
+                }
+                offset = next(buffer, offset);
+            }
+            return moves;
+        } finally {
+            engine.setRecorder(recorder);
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer, CRC32 crc, int from, int to) {
+        crc.reset();
+        crc.update(buffer.duplicate().limit(to).position(from));
+        return (int) crc.getValue();
+    }
+}
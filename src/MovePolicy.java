@@ -0,0 +1,13 @@
+import java.util.Random;
+
+public interface MovePolicy {
+    boolean chooseMove(GameEngine engine, Random random, int[] move);
+
+    static MovePolicy forName(String name) {
+        return switch (name) {
+            case "random" -> new RandomMovePolicy();
+            case "greedy" -> new GreedyMovePolicy();
+            default -> throw new IllegalArgumentException("Unknown policy: " + name);
+        };
+    }
+}
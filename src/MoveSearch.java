@@ -0,0 +1,349 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MoveSearch {
+    private static final int MAX_DEPTH = 3;
+    private static final int CHANCE_SAMPLES = 4;
+    private static final int INNER_CANDIDATES = 12;
+    private static final int ROOT_CANDIDATES = 48;
+    private static final int DEEP_ROOT_CANDIDATES = 16;
+    private static final int EVALUATION_CACHE_BITS = 15;
+    private static final double GAME_OVER_PENALTY = -1000;
+    private static final double EMPTY_WEIGHT = 5.0;
+    private static final double LINE_WEIGHT = 0.1;
+
+    public static class Result {
+        public final int fromRow, fromCol, toRow, toCol;
+        public final double value;
+        public final int depth;
+        public final long nodes;
+        public final long elapsedNanos;
+
+        Result(int from, int to, int width, double value, int depth, long nodes, long elapsedNanos) {
+            fromRow = from / width;
+            fromCol = from % width;
+            toRow = to / width;
+            toCol = to % width;
+            this.value = value;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double getNodesPerSecond() {
+            return nodes * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("(%d,%d) -> (%d,%d), depth %d, %d nodes, %.0f nodes/s",
+                    fromRow + 1, fromCol + 1, toRow + 1, toCol + 1, depth, nodes, getNodesPerSecond());
+        }
+    }
+
+    private static class SearchTimeout extends RuntimeException {
+        SearchTimeout() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final int threads;
+    private final ExecutorService workers;
+    private final ExecutorService coordinator;
+    private final TranspositionTable table;
+    private final ThreadLocal<Worker> worker;
+    private final LongAdder nodes = new LongAdder();
+    private volatile long deadline;
+    private volatile long sampleSeed;
+
+    public MoveSearch(int threads, int tableBits) {
+        this.threads = threads;
+        workers = Executors.newFixedThreadPool(threads, daemon("move-search"));
+        coordinator = Executors.newSingleThreadExecutor(daemon("move-search-coordinator"));
+        table = new TranspositionTable(tableBits);
+        worker = ThreadLocal.withInitial(Worker::new);
+    }
+
+    public CompletableFuture<Result> searchAsync(GameEngine position, long budgetMillis) {
+        return CompletableFuture.supplyAsync(() -> search(position, budgetMillis), coordinator);
+    }
+
+    public synchronized Result search(GameEngine position, long budgetMillis) {
+        long start = System.nanoTime();
+        deadline = start + budgetMillis * 1_000_000L;
+        sampleSeed = position.positionHash();
+        nodes.reset();
+
+        int width = position.getWidth();
+        int[] moves = collectMoves(position);
+        int count = moves.length / 2;
+        if (count == 0) return null;
+        int[] from = new int[count];
+        int[] to = new int[count];
+        for (int i = 0; i < count; i++) {
+            from[i] = moves[2 * i];
+            to[i] = moves[2 * i + 1];
+        }
+
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = GreedyMovePolicy.longestRun(position, from[i], to[i] / width, to[i] % width,
+                    position.getColor(from[i] / width, from[i] % width));
+        }
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        sortByValue(order, values, count);
+        int completedDepth = 0;
+        int best = order[0];
+
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            int candidates = Math.min(count, depth == 1 ? ROOT_CANDIDATES : DEEP_ROOT_CANDIDATES);
+            double[] iteration = evaluate(position, from, to, order, candidates, depth);
+            if (iteration == null) break;
+            for (int i = 0; i < candidates; i++) {
+                values[order[i]] = iteration[i];
+            }
+            best = order[0];
+            for (int i = 1; i < candidates; i++) {
+                if (values[order[i]] > values[best]) best = order[i];
+            }
+            completedDepth = depth;
+            sortByValue(order, values, candidates);
+            if (System.nanoTime() >= deadline) break;
+        }
+        return new Result(from[best], to[best], width, values[best], completedDepth, nodes.sum(), System.nanoTime() - start);
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+        coordinator.shutdownNow();
+    }
+
+    private double[] evaluate(GameEngine position, int[] from, int[] to, int[] order, int candidates, int depth) {
+        double[] result = new double[candidates];
+        AtomicInteger next = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tasks.add(() -> {
+                Worker w = worker.get();
+                int i;
+                while ((i = next.getAndIncrement()) < candidates) {
+                    result[i] = w.evaluateMove(position, from[order[i]], to[order[i]], depth);
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : workers.invokeAll(tasks)) {
+                future.get();
+            }
+            return result;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SearchTimeout) return null;
+            throw new IllegalStateException("Move search failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static void sortByValue(int[] order, double[] values, int count) {
+        Integer[] boxed = new Integer[count];
+        for (int i = 0; i < count; i++) boxed[i] = order[i];
+        Arrays.sort(boxed, (a, b) -> Double.compare(values[b], values[a]));
+        for (int i = 0; i < count; i++) order[i] = boxed[i];
+    }
+
+    private static int[] collectMoves(GameEngine engine) {
+        int width = engine.getWidth();
+        int cellCount = engine.getConfig().getCellCount();
+        int empty = engine.countEmpty();
+        int[] moves = new int[128];
+        int count = 0;
+        for (int from = 0; from < cellCount; from++) {
+            if (engine.isEmpty(from / width, from % width)) continue;
+            for (int k = 0; k < empty; k++) {
+                int to = engine.getEmptyCell(k);
+                if (!engine.canReach(from / width, from % width, to / width, to % width)) continue;
+                if (count + 2 > moves.length) {
+                    moves = Arrays.copyOf(moves, moves.length * 2);
+                }
+                moves[count++] = from;
+                moves[count++] = to;
+            }
+        }
+        return Arrays.copyOf(moves, count);
+    }
+
+    private class Worker {
+        private final GameRandom spawnRandom = new GameRandom();
+        private GameEngine engine;
+        private final EvaluationCache evaluations = new EvaluationCache(EVALUATION_CACHE_BITS);
+        private final int[] candidateFrom = new int[INNER_CANDIDATES];
+        private final int[] candidateTo = new int[INNER_CANDIDATES];
+        private final int[] candidateScore = new int[INNER_CANDIDATES];
+
+        double evaluateMove(GameEngine position, int from, int to, int depth) {
+            if (engine == null || engine.getConfig() != position.getConfig()) {
+                engine = new GameEngine(position.getConfig(), spawnRandom);
+                engine.setHistoryEnabled(true);
+            }
+            engine.copyFrom(position);
+            return moveValue(engine, from, to, depth, 0);
+        }
+
+        private double moveValue(GameEngine engine, int from, int to, int depth, int ply) {
+            checkDeadline();
+            int width = engine.getWidth();
+            int before = engine.getUndoCount();
+            int points = engine.applyMove(from / width, from % width, to / width, to % width);
+            if (points < 0) return GAME_OVER_PENALTY;
+
+            int score = engine.getScore();
+            long key = engine.canonicalPositionHash() ^ (points > 0 ? 0x5DEECE66DL : 0);
+            double cached = table.get(key, depth);
+            if (!Double.isNaN(cached)) {
+                engine.undoTo(before);
+                return score + cached;
+            }
+
+            int afterMove = engine.getUndoCount();
+
+            double total = 0;
+            for (int sample = 0; sample < CHANCE_SAMPLES; sample++) {
+                spawnRandom.setSeed(sampleSeed + sample * 0x9E3779B97F4A7C15L + ply);
+                boolean alive;
+                if (points > 0) {
+                    engine.generateNextColors();
+                    alive = true;
+                } else {
+                    alive = engine.spawnNextBalls();
+                }
+                nodes.increment();
+                if (!alive) {
+                    total += engine.getScore() + GAME_OVER_PENALTY;
+                } else if (depth <= 1) {
+                    total += evaluate(engine);
+                } else {
+                    total += bestReply(engine, depth - 1, ply + 2);
+                }
+                engine.undoTo(afterMove);
+            }
+            engine.undoTo(before);
+            double value = total / CHANCE_SAMPLES;
+            table.put(key, depth, value - score);
+            return value;
+        }
+
+        private double bestReply(GameEngine position, int depth, int ply) {
+            int count = topCandidates(position);
+            if (count == 0) return position.getScore() + GAME_OVER_PENALTY;
+            int[] from = Arrays.copyOf(candidateFrom, count);
+            int[] to = Arrays.copyOf(candidateTo, count);
+            double best = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                best = Math.max(best, moveValue(position, from[i], to[i], depth, ply));
+            }
+            return best;
+        }
+
+        private int topCandidates(GameEngine engine) {
+            int width = engine.getWidth();
+            int cellCount = engine.getConfig().getCellCount();
+            int empty = engine.countEmpty();
+            int count = 0;
+            for (int f = 0; f < cellCount; f++) {
+                int color = engine.getColor(f / width, f % width);
+                if (color == GameEngine.EMPTY) continue;
+                for (int k = 0; k < empty; k++) {
+                    int t = engine.getEmptyCell(k);
+                    if (!engine.canReach(f / width, f % width, t / width, t % width)) continue;
+                    int score = GreedyMovePolicy.longestRun(engine, f, t / width, t % width, color);
+                    if (count < INNER_CANDIDATES) {
+                        insertCandidate(count++, f, t, score);
+                    } else if (score > candidateScore[count - 1]) {
+                        insertCandidate(count - 1, f, t, score);
+                    }
+                }
+            }
+            return count;
+        }
+
+        private void insertCandidate(int slot, int from, int to, int score) {
+            int i = slot;
+            while (i > 0 && candidateScore[i - 1] < score) {
+                candidateFrom[i] = candidateFrom[i - 1];
+                candidateTo[i] = candidateTo[i - 1];
+                candidateScore[i] = candidateScore[i - 1];
+                i--;
+            }
+            candidateFrom[i] = from;
+            candidateTo[i] = to;
+            candidateScore[i] = score;
+        }
+
+        private double evaluate(GameEngine engine) {
+            long key = engine.canonicalBoardHash();
+            double positional = evaluations.get(key);
+            if (Double.isNaN(positional)) {
+                positional = positionalValue(engine);
+                evaluations.put(key, positional);
+            }
+            return engine.getScore() + positional;
+        }
+
+        private double positionalValue(GameEngine engine) {
+            int width = engine.getWidth();
+            int height = engine.getHeight();
+            double lines = 0;
+            for (int row = 0; row < height; row++) {
+                for (int col = 0; col < width; col++) {
+                    int color = engine.getColor(row, col);
+                    if (color == GameEngine.EMPTY) continue;
+                    lines += runValue(engine, row, col, 0, 1, color)
+                            + runValue(engine, row, col, 1, 0, color)
+                            + runValue(engine, row, col, 1, 1, color)
+                            + runValue(engine, row, col, 1, -1, color);
+                }
+            }
+            return EMPTY_WEIGHT * engine.countEmpty() + LINE_WEIGHT * lines;
+        }
+
+        private double runValue(GameEngine engine, int row, int col, int dRow, int dCol, int color) {
+            int prevRow = row - dRow, prevCol = col - dCol;
+            if (engine.isValidCell(prevRow, prevCol) && engine.getColor(prevRow, prevCol) == color) return 0;
+            int length = 0;
+            while (engine.isValidCell(row, col) && engine.getColor(row, col) == color) {
+                length++;
+                row += dRow;
+                col += dCol;
+            }
+            return length > 1 ? (length - 1) * (length - 1) : 0;
+        }
+
+        private void checkDeadline() {
+            if (System.nanoTime() >= deadline) {
+                throw new SearchTimeout();
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -8,7 +8,7 @@ public class NextColorsPanel extends JPanel {
     public NextColorsPanel(GameBoard gameBoard) {
         this.gameBoard = gameBoard;
         setLayout(new FlowLayout());
-        nextColorButtons = new BallButton[3];
+        nextColorButtons = new BallButton[gameBoard.getEngine().getNextColors().length];
 
         for (int i = 0; i < nextColorButtons.length; i++) {
             nextColorButtons[i] = new BallButton();
@@ -18,6 +18,7 @@ public class NextColorsPanel extends JPanel {
         }
 
         gameBoard.setNextColorsPanel(this);
+        updateNextColorsPreview();
     }
 
     public void updateNextColorsPreview() {
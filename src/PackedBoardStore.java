@@ -0,0 +1,257 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PackedBoardStore {
+    public static final int MAGIC = 0x434C5042;
+    public static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int PAGE_BYTES = 1 << 22;
+
+    private final int width;
+    private final int height;
+    private final int colorCount;
+    private final int nextCount;
+    private final int bits;
+    private final int slotsPerWord;
+    private final long mask;
+    private final int recordSize;
+    private final int pageRecords;
+    private final int[] slotOffsets;
+    private final int[] slotShifts;
+    private final List<ByteBuffer> pages = new ArrayList<>();
+    private int count;
+
+    public class Board implements BoardView {
+        private ByteBuffer page;
+        private int offset;
+        private int index = -1;
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Board moveTo(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Board " + index + " of " + count);
+            }
+            this.index = index;
+            page = pages.get(index / pageRecords);
+            offset = index % pageRecords * recordSize;
+            return this;
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public int getColor(int row, int col) {
+            return slot(page, offset, nextCount + row * width + col);
+        }
+
+        @Override
+        public int getNextColorCount() {
+            return nextCount;
+        }
+
+        @Override
+        public int getNextColor(int index) {
+            return slot(page, offset, index);
+        }
+
+        @Override
+        public int getScore() {
+            return page.getInt(offset);
+        }
+
+        public GameState toState() {
+            GameState state = new GameState(width, height, nextCount);
+            for (int row = 0; row < height; row++) {
+                for (int col = 0; col < width; col++) {
+                    state.boardColors[row][col] = getColor(row, col);
+                }
+            }
+            for (int i = 0; i < nextCount; i++) {
+                state.nextColors[i] = getNextColor(i);
+            }
+            state.score = getScore();
+            return state;
+        }
+    }
+
+    public PackedBoardStore(GameConfig config) {
+        this(config.getWidth(), config.getHeight(), config.getColorCount(), config.getSpawnCount());
+    }
+
+    public PackedBoardStore(int width, int height, int colorCount, int nextCount) {
+        this.width = width;
+        this.height = height;
+        this.colorCount = colorCount;
+        this.nextCount = nextCount;
+        bits = 32 - Integer.numberOfLeadingZeros(colorCount);
+        slotsPerWord = 64 / bits;
+        mask = (1L << bits) - 1;
+        int words = (nextCount + width * height + slotsPerWord - 1) / slotsPerWord;
+        recordSize = 4 + words * 8;
+        pageRecords = Math.max(1, PAGE_BYTES / recordSize);
+        slotOffsets = new int[nextCount + width * height];
+        slotShifts = new int[slotOffsets.length];
+        for (int slot = 0; slot < slotOffsets.length; slot++) {
+            slotOffsets[slot] = 4 + slot / slotsPerWord * 8;
+            slotShifts[slot] = slot % slotsPerWord * bits;
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    public int getBitsPerCell() {
+        return bits;
+    }
+
+    public long getMemoryBytes() {
+        return (long) pages.size() * pageRecords * recordSize;
+    }
+
+    public Board get(int index) {
+        return new Board().moveTo(index);
+    }
+
+    public int append(BoardView board) {
+        if (board.getWidth() != width || board.getHeight() != height || board.getNextColorCount() != nextCount) {
+            throw new IllegalArgumentException("Cannot store a " + board.getWidth() + "x" + board.getHeight() + " board with "
+                    + board.getNextColorCount() + " next colors in a " + width + "x" + height + " store with " + nextCount);
+        }
+        if (count == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Board store is full");
+        }
+        if (count == pages.size() * pageRecords) {
+            pages.add(ByteBuffer.allocateDirect(pageRecords * recordSize).order(ByteOrder.LITTLE_ENDIAN));
+        }
+        ByteBuffer page = pages.get(count / pageRecords);
+        int offset = count % pageRecords * recordSize;
+        page.putInt(offset, board.getScore());
+        long word = 0;
+        int slot = 0;
+        int wordOffset = offset + 4;
+        for (int i = 0; i < nextCount; i++) {
+            word |= encode(board.getNextColor(i)) << (slot * bits);
+            if (++slot == slotsPerWord) {
+                page.putLong(wordOffset, word);
+                wordOffset += 8;
+                word = 0;
+                slot = 0;
+            }
+        }
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                word |= encode(board.getColor(row, col)) << (slot * bits);
+                if (++slot == slotsPerWord) {
+                    page.putLong(wordOffset, word);
+                    wordOffset += 8;
+                    word = 0;
+                    slot = 0;
+                }
+            }
+        }
+        if (slot > 0) {
+            page.putLong(wordOffset, word);
+        }
+        return count++;
+    }
+
+    public int appendAll(Iterable<? extends BoardView> boards) {
+        int first = count;
+        for (BoardView board : boards) {
+            append(board);
+        }
+        return first;
+    }
+
+    public void clear() {
+        count = 0;
+        pages.removeIf(ByteBuffer::isReadOnly);
+    }
+
+    public void dump(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, width);
+            header.putInt(12, height);
+            header.putInt(16, colorCount);
+            header.putInt(20, nextCount);
+            header.putLong(24, count);
+            header.force();
+            for (int page = 0; page < pages.size(); page++) {
+                int records = Math.min(pageRecords, count - page * pageRecords);
+                if (records <= 0) break;
+                MappedByteBuffer target = channel.map(FileChannel.MapMode.READ_WRITE,
+                        HEADER_SIZE + (long) page * pageRecords * recordSize, (long) records * recordSize);
+                target.put(pages.get(page).duplicate().position(0).limit(records * recordSize));
+                target.force();
+            }
+        }
+    }
+
+    public static PackedBoardStore load(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a board store: " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a board store: " + file);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported board store version " + header.getInt(4));
+            }
+            PackedBoardStore store = new PackedBoardStore(header.getInt(8), header.getInt(12), header.getInt(16), header.getInt(20));
+            long count = header.getLong(24);
+            if (count < 0 || count > Integer.MAX_VALUE || HEADER_SIZE + count * store.recordSize > channel.size()) {
+                throw new IOException("Truncated board store: " + file);
+            }
+            for (long first = 0; first < count; first += store.pageRecords) {
+                int records = (int) Math.min(store.pageRecords, count - first);
+                ByteBuffer page = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * store.recordSize,
+                        (long) records * store.recordSize);
+                if (records < store.pageRecords) {
+                    page = ByteBuffer.allocateDirect(store.pageRecords * store.recordSize).put(page).clear();
+                }
+                store.pages.add(page.order(ByteOrder.LITTLE_ENDIAN));
+            }
+            store.count = (int) count;
+            return store;
+        }
+    }
+
+    private long encode(int color) {
+        return color >= 0 && color < colorCount ? color + 1 : 0;
+    }
+
+    private int slot(ByteBuffer page, int offset, int slot) {
+        return (int) (page.getLong(offset + slotOffsets[slot]) >>> slotShifts[slot] & mask) - 1;
+    }
+}
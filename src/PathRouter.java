@@ -0,0 +1,88 @@
+import java.util.Arrays;
+
+public class PathRouter {
+    private final byte[] cells;
+    private final int width;
+    private final int height;
+    private final int[] ring;
+    private final int[] parents;
+    private final int[] visited;
+    private int stamp;
+
+    public PathRouter(byte[] cells, int width, int height) {
+        this.cells = cells;
+        this.width = width;
+        this.height = height;
+        ring = new int[cells.length];
+        parents = new int[cells.length];
+        visited = new int[cells.length];
+    }
+
+    public int findPath(int from, int to, int[] path) {
+        if (from == to || cells[to] != GameEngine.EMPTY) return -1;
+        nextStamp();
+
+        int capacity = ring.length;
+        int head = 0, size = 0;
+        ring[0] = to;
+        size++;
+        visited[to] = stamp;
+        visited[from] = stamp;
+
+        while (size > 0) {
+            int cell = ring[head];
+            head = head + 1 == capacity ? 0 : head + 1;
+            size--;
+
+            int row = cell / width;
+            int col = cell % width;
+            for (int dir = 0; dir < 4; dir++) {
+                int next;
+                if (dir == 0) {
+                    if (row == 0) continue;
+                    next = cell - width;
+                } else if (dir == 1) {
+                    if (row == height - 1) continue;
+                    next = cell + width;
+                } else if (dir == 2) {
+                    if (col == 0) continue;
+                    next = cell - 1;
+                } else {
+                    if (col == width - 1) continue;
+                    next = cell + 1;
+                }
+                if (next == from) {
+                    parents[from] = cell;
+                    return tracePath(from, to, path);
+                }
+                if (visited[next] != stamp && cells[next] == GameEngine.EMPTY) {
+                    visited[next] = stamp;
+                    parents[next] = cell;
+                    int tail = head + size;
+                    ring[tail >= capacity ? tail - capacity : tail] = next;
+                    size++;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int tracePath(int from, int to, int[] path) {
+        int length = 1;
+        int cell = from;
+        if (path != null) path[0] = from;
+        while (cell != to) {
+            cell = parents[cell];
+            if (path != null) path[length] = cell;
+            length++;
+        }
+        return length;
+    }
+
+    private void nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            stamp = 1;
+        }
+    }
+}
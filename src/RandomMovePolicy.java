@@ -0,0 +1,44 @@
+import java.util.Random;
+
+public class RandomMovePolicy implements MovePolicy {
+    private static final int ATTEMPTS = 64;
+
+    @Override
+    public boolean chooseMove(GameEngine engine, Random random, int[] move) {
+        int width = engine.getWidth();
+        int cellCount = engine.getConfig().getCellCount();
+        int empty = engine.countEmpty();
+        if (empty == 0 || empty == cellCount) return false;
+
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            int from = random.nextInt(cellCount);
+            if (engine.isEmpty(from / width, from % width)) continue;
+            int to = engine.getEmptyCell(random.nextInt(empty));
+            if (engine.canReach(from / width, from % width, to / width, to % width)) {
+                setMove(move, from, to, width);
+                return true;
+            }
+        }
+
+        int offset = random.nextInt(cellCount);
+        for (int i = 0; i < cellCount; i++) {
+            int from = (offset + i) % cellCount;
+            if (engine.isEmpty(from / width, from % width)) continue;
+            for (int k = 0; k < empty; k++) {
+                int to = engine.getEmptyCell(k);
+                if (engine.canReach(from / width, from % width, to / width, to % width)) {
+                    setMove(move, from, to, width);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static void setMove(int[] move, int from, int to, int width) {
+        move[0] = from / width;
+        move[1] = from % width;
+        move[2] = to / width;
+        move[3] = to % width;
+    }
+}
@@ -0,0 +1,309 @@
+import java.util.Arrays;
+
+public class ReachabilityIndex {
+    private static final int MAX_SEARCHES = 4;
+
+    private final byte[] cells;
+    private final int width;
+    private final int height;
+    private final int[] labels;
+    private final int[] componentSizes;
+    private final int[] freeLabels;
+    private int freeCount;
+    private int nextLabel;
+
+    private final int[][] queues;
+    private final int[] heads;
+    private final int[] tails;
+    private final int[] owners;
+    private final int[] groups;
+    private final boolean[] finished;
+    private int ownerStamp;
+    private final int[] neighbours = new int[4];
+
+    public ReachabilityIndex(byte[] cells, int width, int height) {
+        this.cells = cells;
+        this.width = width;
+        this.height = height;
+        labels = new int[cells.length];
+        componentSizes = new int[cells.length + 1];
+        freeLabels = new int[cells.length + 1];
+        queues = new int[MAX_SEARCHES][cells.length];
+        heads = new int[MAX_SEARCHES];
+        tails = new int[MAX_SEARCHES];
+        owners = new int[cells.length];
+        groups = new int[MAX_SEARCHES];
+        finished = new boolean[MAX_SEARCHES];
+        rebuild();
+    }
+
+    public int getLabel(int index) {
+        return labels[index];
+    }
+
+    public int getComponentSize(int index) {
+        return labels[index] == 0 ? 0 : componentSizes[labels[index]];
+    }
+
+    public boolean canReach(int from, int to) {
+        int target = labels[to];
+        if (target == 0) return false;
+        if (labels[from] == target) return true;
+        int count = emptyNeighbours(from);
+        for (int i = 0; i < count; i++) {
+            if (labels[neighbours[i]] == target) return true;
+        }
+        return false;
+    }
+
+    public int collectReachable(int from, int[] out) {
+        int count = emptyNeighbours(from);
+        int a = count > 0 ? labels[neighbours[0]] : -1;
+        int b = count > 1 ? labels[neighbours[1]] : -1;
+        int c = count > 2 ? labels[neighbours[2]] : -1;
+        int d = count > 3 ? labels[neighbours[3]] : -1;
+        if (labels[from] != 0) a = labels[from];
+        if (a == -1) return 0;
+
+        int found = 0;
+        for (int i = 0; i < labels.length; i++) {
+            int label = labels[i];
+            if (label != 0 && (label == a || label == b || label == c || label == d)) {
+                out[found++] = i;
+            }
+        }
+        return found;
+    }
+
+    public void rebuild() {
+        Arrays.fill(labels, 0);
+        freeCount = 0;
+        nextLabel = 1;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == GameEngine.EMPTY && labels[i] == 0) {
+                int label = allocateLabel();
+                componentSizes[label] = flood(i, 0, label, queues[0]);
+            }
+        }
+    }
+
+    public void onEmptied(int index) {
+        int count = emptyNeighbours(index);
+        int target = 0;
+        for (int i = 0; i < count; i++) {
+            int label = labels[neighbours[i]];
+            if (target == 0 || componentSizes[label] > componentSizes[target]) {
+                target = label;
+            }
+        }
+        if (target == 0) {
+            target = allocateLabel();
+            componentSizes[target] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            int label = labels[neighbours[i]];
+            if (label != target) {
+                componentSizes[target] += flood(neighbours[i], label, target, queues[0]);
+                releaseLabel(label);
+            }
+        }
+        labels[index] = target;
+        componentSizes[target]++;
+    }
+
+    public void onFilled(int index) {
+        int label = labels[index];
+        labels[index] = 0;
+        if (--componentSizes[label] == 0) {
+            releaseLabel(label);
+            return;
+        }
+
+        int count = emptyNeighbours(index);
+        if (count < 2) return;
+        int groupCount = groupLocally(index, count);
+        if (groupCount < 2) return;
+        splitComponent(label, count);
+    }
+
+    private int groupLocally(int index, int count) {
+        for (int i = 0; i < count; i++) {
+            groups[i] = i;
+        }
+        int row = index / width;
+        int col = index % width;
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                if (sharesEmptyCorner(row, col, neighbours[i], neighbours[j])) {
+                    union(i, j);
+                }
+            }
+        }
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (find(i) == i) distinct++;
+        }
+        return distinct;
+    }
+
+    private boolean sharesEmptyCorner(int row, int col, int a, int b) {
+        int aRow = a / width, aCol = a % width;
+        int bRow = b / width, bCol = b % width;
+        if (aRow == bRow || aCol == bCol) return false;
+        int cornerRow = aRow != row ? aRow : bRow;
+        int cornerCol = aCol != col ? aCol : bCol;
+        return cells[cornerRow * width + cornerCol] == GameEngine.EMPTY;
+    }
+
+    private void splitComponent(int label, int count) {
+        nextOwnerStamp();
+        for (int s = 0; s < count; s++) {
+            heads[s] = 0;
+            tails[s] = 0;
+            finished[s] = false;
+        }
+        for (int s = 0; s < count; s++) {
+            owners[neighbours[s]] = ownerStamp + s;
+            queues[s][tails[s]++] = neighbours[s];
+        }
+
+        while (distinctActiveGroups(count) > 1) {
+            for (int s = 0; s < count; s++) {
+                if (heads[s] < tails[s]) {
+                    step(s, label);
+                }
+            }
+            for (int s = 0; s < count && distinctActiveGroups(count) > 1; s++) {
+                if (find(s) != s || finished[s] || !groupExhausted(s, count)) continue;
+                relabelGroup(s, count, label);
+            }
+        }
+    }
+
+    private void relabelGroup(int root, int count, int label) {
+        int newLabel = allocateLabel();
+        int size = 0;
+        for (int s = 0; s < count; s++) {
+            if (find(s) == root) {
+                for (int i = 0; i < tails[s]; i++) {
+                    labels[queues[s][i]] = newLabel;
+                }
+                size += tails[s];
+            }
+        }
+        componentSizes[newLabel] = size;
+        componentSizes[label] -= size;
+        finished[root] = true;
+    }
+
+    private void step(int search, int label) {
+        int cell = queues[search][heads[search]++];
+        int row = cell / width;
+        int col = cell % width;
+        if (row > 0) visit(search, cell - width, label);
+        if (row < height - 1) visit(search, cell + width, label);
+        if (col > 0) visit(search, cell - 1, label);
+        if (col < width - 1) visit(search, cell + 1, label);
+    }
+
+    private void visit(int search, int cell, int label) {
+        if (labels[cell] != label) return;
+        int owner = owners[cell] - ownerStamp;
+        if (owner >= 0 && owner < MAX_SEARCHES) {
+            union(search, owner);
+            return;
+        }
+        owners[cell] = ownerStamp + search;
+        queues[search][tails[search]++] = cell;
+    }
+
+    private boolean groupExhausted(int root, int count) {
+        for (int s = 0; s < count; s++) {
+            if (find(s) == root && heads[s] < tails[s]) return false;
+        }
+        return true;
+    }
+
+    private int distinctActiveGroups(int count) {
+        int distinct = 0;
+        for (int s = 0; s < count; s++) {
+            if (find(s) == s && !finished[s]) distinct++;
+        }
+        return distinct;
+    }
+
+    private int find(int s) {
+        while (groups[s] != s) {
+            s = groups[s];
+        }
+        return s;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA != rootB) {
+            groups[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    private int flood(int start, int from, int to, int[] queue) {
+        int head = 0, tail = 0;
+        labels[start] = to;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            int row = cell / width;
+            int col = cell % width;
+            if (row > 0 && isFloodable(cell - width, from)) {
+                labels[cell - width] = to;
+                queue[tail++] = cell - width;
+            }
+            if (row < height - 1 && isFloodable(cell + width, from)) {
+                labels[cell + width] = to;
+                queue[tail++] = cell + width;
+            }
+            if (col > 0 && isFloodable(cell - 1, from)) {
+                labels[cell - 1] = to;
+                queue[tail++] = cell - 1;
+            }
+            if (col < width - 1 && isFloodable(cell + 1, from)) {
+                labels[cell + 1] = to;
+                queue[tail++] = cell + 1;
+            }
+        }
+        return tail;
+    }
+
+    private boolean isFloodable(int cell, int from) {
+        return cells[cell] == GameEngine.EMPTY && labels[cell] == from;
+    }
+
+    private int emptyNeighbours(int index) {
+        int row = index / width;
+        int col = index % width;
+        int count = 0;
+        if (row > 0 && labels[index - width] != 0) neighbours[count++] = index - width;
+        if (row < height - 1 && labels[index + width] != 0) neighbours[count++] = index + width;
+        if (col > 0 && labels[index - 1] != 0) neighbours[count++] = index - 1;
+        if (col < width - 1 && labels[index + 1] != 0) neighbours[count++] = index + 1;
+        return count;
+    }
+
+    private int allocateLabel() {
+        return freeCount > 0 ? freeLabels[--freeCount] : nextLabel++;
+    }
+
+    private void releaseLabel(int label) {
+        componentSizes[label] = 0;
+        freeLabels[freeCount++] = label;
+    }
+
+    private void nextOwnerStamp() {
+        if (ownerStamp > Integer.MAX_VALUE - 2 * MAX_SEARCHES) {
+            Arrays.fill(owners, 0);
+            ownerStamp = 0;
+        }
+        ownerStamp += MAX_SEARCHES;
+    }
+}
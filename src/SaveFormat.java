@@ -0,0 +1,186 @@
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+public class SaveFormat {
+    public static final int MAGIC = 0x434C5356;
+    public static final int VERSION = 3;
+    private static final int HEADER_SIZE = 16;
+    private static final short LEGACY_MAGIC = (short) 0xACED;
+    private static final ObjectInputFilter LEGACY_FILTER = ObjectInputFilter.Config.createFilter(
+            "GameState;maxdepth=4;maxrefs=100000;maxarray=100000000;!*");
+
+    public static ByteBuffer encode(GameState state) {
+        int width = state.getWidth();
+        int height = state.getHeight();
+        int bits = bitsPerCell(state);
+        int packedSize = (int) (((long) width * height * bits + 7) / 8);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 2 + state.nextColors.length + 37 + packedSize + 4);
+
+        buffer.putInt(MAGIC);
+        buffer.put((byte) VERSION);
+        buffer.put((byte) bits);
+        buffer.putShort((short) 0);
+        buffer.putInt(width);
+        buffer.putInt(height);
+        buffer.putShort((short) state.nextColors.length);
+        for (int color : state.nextColors) {
+            buffer.put((byte) color);
+        }
+        buffer.putInt(state.score);
+        buffer.putInt(state.highScore);
+        buffer.putInt(state.moves);
+        buffer.putLong(state.playMillis);
+        buffer.put((byte) (state.randomSaved ? 1 : 0));
+        buffer.putLong(state.seed);
+        buffer.putLong(state.randomState);
+
+        long accumulator = 0;
+        int pending = 0;
+        int limit = (1 << bits) - 1;
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                int value = state.boardColors[row][col] + 1;
+                accumulator |= (long) (value < 0 || value > limit ? 0 : value) << pending;
+                pending += bits;
+                while (pending >= 8) {
+                    buffer.put((byte) accumulator);
+                    accumulator >>>= 8;
+                    pending -= 8;
+                }
+            }
+        }
+        if (pending > 0) {
+            buffer.put((byte) accumulator);
+        }
+
+        buffer.putInt(checksum(buffer, 0, buffer.position()));
+        buffer.flip();
+        return buffer;
+    }
+
+    public static GameState decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() >= 2 && buffer.getShort(buffer.position()) == LEGACY_MAGIC) {
+            return decodeLegacy(buffer);
+        }
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_SIZE + 4 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a Color Lines save file");
+        }
+        int version = buffer.get();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported save version " + version);
+        }
+        int end = buffer.limit() - 4;
+        if (checksum(buffer, start, end) != buffer.getInt(end)) {
+            throw new IOException("Save file checksum mismatch");
+        }
+
+        int bits = buffer.get();
+        buffer.getShort();
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        if (bits < 1 || bits > 8 || width < 1 || height < 1 || (long) width * height * bits > 8L * (end - start)) {
+            throw new IOException("Corrupt save header");
+        }
+        GameState state = new GameState(width, height, buffer.getShort() & 0xFFFF);
+        for (int i = 0; i < state.nextColors.length; i++) {
+            state.nextColors[i] = buffer.get();
+        }
+        state.score = buffer.getInt();
+        state.highScore = buffer.getInt();
+        if (version >= 2) {
+            state.moves = buffer.getInt();
+            state.playMillis = buffer.getLong();
+        }
+        if (version >= 3) {
+            state.randomSaved = buffer.get() != 0;
+            state.seed = buffer.getLong();
+            state.randomState = buffer.getLong();
+        }
+
+        long accumulator = 0;
+        int available = 0;
+        int mask = (1 << bits) - 1;
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if (available < bits) {
+                    accumulator |= (long) (buffer.get() & 0xFF) << available;
+                    available += 8;
+                }
+                state.boardColors[row][col] = (int) (accumulator & mask) - 1;
+                accumulator >>>= bits;
+                available -= bits;
+            }
+        }
+        return state;
+    }
+
+    public static GameState read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Save file too large: " + size + " bytes");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Save file truncated");
+                }
+            }
+            buffer.flip();
+            return decode(buffer);
+        }
+    }
+
+    public static int write(File file, GameState state) throws IOException {
+        ByteBuffer bytes = encode(state);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        return bytes.limit();
+    }
+
+    private static GameState decodeLegacy(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            in.setObjectInputFilter(LEGACY_FILTER);
+            Object state = in.readObject();
+            if (!(state instanceof GameState)) {
+                throw new InvalidObjectException("Unexpected object in save file: " + state.getClass().getName());
+            }
+            return (GameState) state;
+        } catch (ClassNotFoundException e) {
+            throw new InvalidObjectException("Unknown class in save file: " + e.getMessage());
+        }
+    }
+
+    private static int bitsPerCell(GameState state) {
+        int max = 0;
+        for (int[] row : state.boardColors) {
+            for (int color : row) {
+                max = Math.max(max, color + 1);
+            }
+        }
+        return Math.min(8, Math.max(1, 32 - Integer.numberOfLeadingZeros(max)));
+    }
+
+    private static int checksum(ByteBuffer buffer, int from, int to) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(to).position(from));
+        return (int) crc.getValue();
+    }
+}
@@ -2,14 +2,60 @@ import javax.swing.*;
 import java.io.*;
 
 public class ScoreManager {
-    private static final String HIGH_SCORE_FILE = System.getProperty("user.dir") + File.separator + "highscore.dat";
+    private static final String LEADERBOARD_FILE = System.getProperty("user.dir") + File.separator + "leaderboard.dat";
     private int score = 0;
     private int highScore = 0;
     private JLabel scoreLabel;
     private JLabel highScoreLabel;
+    private final File leaderboardFile;
+    private Leaderboard leaderboard;
 
     public ScoreManager() {
-        loadHighScore();
+        this(new File(LEADERBOARD_FILE));
+    }
+
+    public ScoreManager(File leaderboardFile) {
+        this(leaderboardFile, true);
+    }
+
+    public ScoreManager(File leaderboardFile, boolean load) {
+        this.leaderboardFile = leaderboardFile;
+        if (load) {
+            load();
+        }
+    }
+
+    public static File defaultLeaderboardFile() {
+        return new File(LEADERBOARD_FILE);
+    }
+
+    public void load() {
+        Leaderboard opened = null;
+        try {
+            opened = new Leaderboard(leaderboardFile);
+        } catch (IOException e) {
+            System.err.println("Failed to open leaderboard: " + e.getMessage());
+        }
+        int best = opened != null ? opened.getBestScore() : 0;
+        synchronized (this) {
+            leaderboard = opened;
+            highScore = Math.max(highScore, best);
+        }
+    }
+
+    public synchronized Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    public int recordGame(String player, int moves, long durationMillis) {
+        updateHighScore();
+        if (leaderboard == null) {
+            return 0;
+        }
+        int rank = leaderboard.add(new Leaderboard.Entry(player, score, moves, durationMillis, System.currentTimeMillis()));
+        leaderboard.force();
+        mergeHighScore(leaderboard.getBestScore());
+        return rank;
     }
 
     public void setScoreLabels(JLabel scoreLabel, JLabel highScoreLabel) {
@@ -28,7 +74,7 @@ public class ScoreManager {
         return score;
     }
 
-    public int getHighScore() {
+    public synchronized int getHighScore() {
         return highScore;
     }
 
@@ -39,65 +85,25 @@ public class ScoreManager {
         }
     }
 
-    public void resetScore() {
-        score = 0;
-        if (scoreLabel != null) {
-            scoreLabel.setText("Score: 0");
-        }
-    }
-
-    public void addScore(int points) {
-        score += points;
-        if (scoreLabel != null) {
-            scoreLabel.setText("Score: " + score);
-        }
-    }
-
-    public void updateHighScore() {
+    public synchronized void updateHighScore() {
         if (score > highScore) {
             highScore = score;
             if (highScoreLabel != null) {
                 highScoreLabel.setText("High Score: " + highScore);
             }
-            saveHighScore();
         }
     }
 
-    public void setHighScore(int highScore) {
-        this.highScore = highScore;
-        if (highScoreLabel != null) {
-            highScoreLabel.setText("High Score: " + highScore);
+    public synchronized void mergeHighScore(int highScore) {
+        if (highScore > this.highScore) {
+            setHighScore(highScore);
         }
     }
 
-    private void loadHighScore() {
-        File file = new File(HIGH_SCORE_FILE);
-        if (!file.exists() || file.length() == 0) {
-            highScore = 0;
-            return;
-        }
-        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
-            highScore = in.readInt();
-        } catch (IOException e) {
-            highScore = 0;
-        }
-    }
-
-    private void saveHighScore() {
-        File file = new File(HIGH_SCORE_FILE);
-        File parent = file.getParentFile();
-        if (parent != null && !parent.exists()) {
-            parent.mkdirs();
-        }
-        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
-            out.writeInt(highScore);
-            out.flush();
-        } catch (IOException e) {
-
+    public synchronized void setHighScore(int highScore) {
+        this.highScore = highScore;
+        if (highScoreLabel != null) {
+            highScoreLabel.setText("High Score: " + highScore);
         }
     }
-
-    public void saveHighScoreNow() {
-        saveHighScore();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Simulator {
+    private final GameConfig config;
+    private final String policyName;
+    private final long games;
+    private final int threads;
+    private final long seed;
+    private final int maxMoves;
+
+    public Simulator(GameConfig config, String policyName, long games, int threads, long seed, int maxMoves) {
+        this.config = config;
+        this.policyName = policyName;
+        this.games = games;
+        this.threads = threads;
+        this.seed = seed;
+        this.maxMoves = maxMoves;
+    }
+
+    public static void main(String[] args) throws Exception {
+        GameConfig config = GameConfig.fromArgs(args);
+        Simulator simulator = new Simulator(config,
+                stringArg(args, "policy", "random"),
+                longArg(args, "games", 100000),
+                (int) longArg(args, "threads", Runtime.getRuntime().availableProcessors()),
+                longArg(args, "seed", System.nanoTime()),
+                (int) longArg(args, "max-moves", 1000000));
+        simulator.run().print(System.out);
+    }
+
+    public Stats run() throws Exception {
+        MovePolicy.forName(policyName);
+        AtomicLong nextGame = new AtomicLong();
+        GameRandom seeds = new GameRandom(seed);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<Stats>> results = new ArrayList<>();
+            for (int worker = 0; worker < threads; worker++) {
+                results.add(pool.submit(() -> playGames(nextGame, seeds)));
+            }
+            Stats total = new Stats(config, policyName, threads);
+            for (Future<Stats> result : results) {
+                total.merge(result.get());
+            }
+            total.elapsedNanos = System.nanoTime() - start;
+            return total;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Stats playGames(AtomicLong nextGame, GameRandom seeds) {
+        GameRandom random = new GameRandom();
+        GameEngine engine = new GameEngine(config, new GameRandom());
+        MovePolicy policy = MovePolicy.forName(policyName);
+        Stats stats = new Stats(config, policyName, threads);
+        int[] move = new int[4];
+
+        for (long game = nextGame.getAndIncrement(); game < games; game = nextGame.getAndIncrement()) {
+            GameRandom gameSeeds = seeds.split(game);
+            engine.startNewGame(gameSeeds.nextLong());
+            random.setSeed(gameSeeds.nextLong());
+            int moves = 0;
+            while (moves < maxMoves && policy.chooseMove(engine, random, move)) {
+                GameEngine.TurnResult result = engine.playTurn(move[0], move[1], move[2], move[3]);
+                if (result == GameEngine.TurnResult.INVALID) break;
+                moves++;
+                if (result == GameEngine.TurnResult.GAME_OVER) break;
+            }
+            stats.record(engine.getScore(), moves);
+        }
+        return stats;
+    }
+
+    static String stringArg(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) return arg.substring(prefix.length());
+        }
+        return defaultValue;
+    }
+
+    static long longArg(String[] args, String name, long defaultValue) {
+        String value = stringArg(args, name, null);
+        if (value == null) return defaultValue;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: --" + name + "=" + value);
+        }
+    }
+
+    public static class Stats {
+        private final GameConfig config;
+        private final String policyName;
+        private final int threads;
+        private final Histogram scores = new Histogram();
+        private final Histogram lengths = new Histogram();
+        private long games;
+        private long moves;
+        private long elapsedNanos;
+
+        Stats(GameConfig config, String policyName, int threads) {
+            this.config = config;
+            this.policyName = policyName;
+            this.threads = threads;
+        }
+
+        void record(int score, int gameMoves) {
+            games++;
+            moves += gameMoves;
+            scores.add(score);
+            lengths.add(gameMoves);
+        }
+
+        void merge(Stats other) {
+            games += other.games;
+            moves += other.moves;
+            scores.merge(other.scores);
+            lengths.merge(other.lengths);
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getMoves() {
+            return moves;
+        }
+
+        public double getGamesPerSecond() {
+            return games * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        public double getMovesPerSecond() {
+            return moves * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        public void print(PrintStream out) {
+            out.printf("%d games of %s with policy '%s' on %d threads in %.2f s%n",
+                    games, config, policyName, threads, elapsedNanos / 1e9);
+            out.printf("Throughput: %.0f games/s, %.0f moves/s%n", getGamesPerSecond(), getMovesPerSecond());
+            out.println("Score: " + scores.summary());
+            scores.printBars(out, 10);
+            out.println("Game length (moves): " + lengths.summary());
+            lengths.printBars(out, 10);
+        }
+    }
+
+    static class Histogram {
+        private long[] counts = new long[64];
+        private long total;
+        private long sum;
+        private int max;
+
+        void add(int value) {
+            if (value >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(value + 1, counts.length * 2));
+            }
+            counts[value]++;
+            total++;
+            sum += value;
+            max = Math.max(max, value);
+        }
+
+        void merge(Histogram other) {
+            if (other.counts.length > counts.length) {
+                counts = Arrays.copyOf(counts, other.counts.length);
+            }
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            total += other.total;
+            sum += other.sum;
+            max = Math.max(max, other.max);
+        }
+
+        int percentile(double p) {
+            long rank = (long) Math.ceil(p * total);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) return i;
+            }
+            return max;
+        }
+
+        String summary() {
+            if (total == 0) return "no data";
+            return String.format("mean %.1f, p50 %d, p90 %d, p99 %d, max %d",
+                    (double) sum / total, percentile(0.5), percentile(0.9), percentile(0.99), max);
+        }
+
+        void printBars(PrintStream out, int buckets) {
+            if (total == 0) return;
+            int width = Math.max(1, (max + buckets) / buckets);
+            for (int start = 0; start <= max; start += width) {
+                long count = 0;
+                for (int i = start; i < Math.min(start + width, counts.length); i++) {
+                    count += counts[i];
+                }
+                int bar = (int) Math.round(40.0 * count / total);
+                out.printf("  %6d-%-6d %10d %s%n", start, start + width - 1, count, "#".repeat(bar));
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+import java.awt.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StartupLoader {
+    private static final int THREADS = 3;
+    private static final int FRAME_CHROME = 250;
+    private static final int PREVIEW_BALL_SIZE = 40;
+
+    private final GameConfig config;
+    private final ScoreManager scoreManager;
+    private final CompletableFuture<Void> scores;
+    private final CompletableFuture<GameBoard> board;
+    private final CompletableFuture<Void> sprites;
+    private final CompletableFuture<GameBoard> ready;
+
+    public StartupLoader(GameConfig config) {
+        this.config = config;
+        StartupTimer.mark("loader started");
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS, task -> {
+            Thread thread = new Thread(task, "startup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scoreManager = new ScoreManager(ScoreManager.defaultLeaderboardFile(), false);
+        scores = CompletableFuture.runAsync(() -> StartupTimer.run("high scores", scoreManager::load), executor);
+        board = CompletableFuture.supplyAsync(() -> StartupTimer.time("model", this::loadBoard), executor);
+        sprites = CompletableFuture.runAsync(() -> StartupTimer.run("sprites", this::prepareSprites), executor)
+                .exceptionally(error -> {
+                    System.err.println("Failed to prepare sprites: " + error.getMessage());
+                    return null;
+                });
+        ready = CompletableFuture.allOf(scores, board, sprites).thenApply(done -> board.join());
+        executor.shutdown();
+    }
+
+    public CompletableFuture<GameBoard> getReady() {
+        return ready;
+    }
+
+    public ScoreManager getScoreManager() {
+        return scoreManager;
+    }
+
+    private GameBoard loadBoard() {
+        GameBoard gameBoard = new GameBoard(scoreManager, config);
+        if (!StartupTimer.time("saved game", gameBoard::loadState)) {
+            gameBoard.startNewGame();
+        }
+        return gameBoard;
+    }
+
+    private void prepareSprites() {
+        Color[] palette = ColorManager.createPalette(config.getColorCount());
+        GraphicsConfiguration configuration = null;
+        int boardSize = 600;
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsEnvironment environment = GraphicsEnvironment.getLocalGraphicsEnvironment();
+            configuration = environment.getDefaultScreenDevice().getDefaultConfiguration();
+            Rectangle bounds = environment.getMaximumWindowBounds();
+            boardSize = Math.min(bounds.width, bounds.height - FRAME_CHROME);
+        }
+        BallSprites.prepare(palette, BoardCanvas.ballSize(boardSize, boardSize, config.getWidth(), config.getHeight()), configuration);
+        BallSprites.prepare(palette, PREVIEW_BALL_SIZE, configuration);
+    }
+}
@@ -0,0 +1,121 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class StartupTimer {
+    public static final boolean LOG = Boolean.getBoolean("colorlines.startup.log");
+    public static final String INTERACTIVE = "first interactive frame";
+    private static final long START = System.nanoTime();
+    private static final List<Phase> phases = new ArrayList<>();
+    private static long interactiveNanos = -1;
+
+    public static class Phase {
+        private final String name;
+        private final String thread;
+        private final long startNanos;
+        private final long endNanos;
+
+        Phase(String name, String thread, long startNanos, long endNanos) {
+            this.name = name;
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        public double getStartMillis() {
+            return (startNanos - START) / 1e6;
+        }
+
+        public double getDurationMillis() {
+            return (endNanos - startNanos) / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-24s at %7.1f ms, took %7.1f ms on %s", name, getStartMillis(), getDurationMillis(), thread);
+        }
+    }
+
+    public static <T> T time(String name, Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            record(name, start, System.nanoTime());
+        }
+    }
+
+    public static void run(String name, Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            record(name, start, System.nanoTime());
+        }
+    }
+
+    public static void mark(String name) {
+        long now = System.nanoTime();
+        record(name, now, now);
+    }
+
+    public static void interactive() {
+        synchronized (phases) {
+            if (interactiveNanos >= 0) return;
+            interactiveNanos = System.nanoTime();
+        }
+        mark(INTERACTIVE);
+        if (LOG) {
+            System.err.print(report());
+        }
+    }
+
+    public static double getInteractiveMillis() {
+        synchronized (phases) {
+            return interactiveNanos < 0 ? -1 : (interactiveNanos - START) / 1e6;
+        }
+    }
+
+    public static List<Phase> getPhases() {
+        synchronized (phases) {
+            return new ArrayList<>(phases);
+        }
+    }
+
+    public static Map<String, Double> getPhaseEndMillis() {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        for (Phase phase : getPhases()) {
+            millis.put(phase.getName(), phase.getStartMillis() + phase.getDurationMillis());
+        }
+        return millis;
+    }
+
+    public static String report() {
+        StringBuilder report = new StringBuilder("Startup phases:\n");
+        for (Phase phase : getPhases()) {
+            report.append("  ").append(phase).append('\n');
+        }
+        double interactive = getInteractiveMillis();
+        if (interactive >= 0) {
+            report.append(String.format("  time to first interactive frame: %.1f ms%n", interactive));
+        }
+        return report.toString();
+    }
+
+    private static void record(String name, long start, long end) {
+        Phase phase = new Phase(name, Thread.currentThread().getName(), start, end);
+        synchronized (phases) {
+            phases.add(phase);
+        }
+    }
+}
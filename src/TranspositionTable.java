@@ -0,0 +1,54 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TranspositionTable {
+    private static final long STORED = 1L << 8;
+    private final AtomicLongArray keys;
+    private final AtomicLongArray entries;
+    private final int mask;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    public TranspositionTable(int bits) {
+        keys = new AtomicLongArray(1 << bits);
+        entries = new AtomicLongArray(1 << bits);
+        mask = (1 << bits) - 1;
+    }
+
+    public double get(long key, int depth) {
+        probes.increment();
+        int slot = slot(key);
+        long entry = entries.get(slot);
+        if ((entry & STORED) == 0 || (keys.get(slot) ^ entry) != key || (int) (entry & 0xFF) != depth) {
+            return Double.NaN;
+        }
+        hits.increment();
+        return Float.intBitsToFloat((int) (entry >>> 32));
+    }
+
+    public void put(long key, int depth, double value) {
+        int slot = slot(key);
+        long entry = (long) Float.floatToRawIntBits((float) value) << 32 | STORED | (depth & 0xFF);
+        keys.set(slot, key ^ entry);
+        entries.set(slot, entry);
+    }
+
+    public void clear() {
+        for (int i = 0; i <= mask; i++) {
+            keys.set(i, 0);
+            entries.set(i, 0);
+        }
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    private int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
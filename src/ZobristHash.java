@@ -0,0 +1,92 @@
+public class ZobristHash {
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private final int width;
+    private final int height;
+    private final int symmetries;
+    private final long[] hashes = new long[8];
+
+    public ZobristHash(int width, int height) {
+        this.width = width;
+        this.height = height;
+        symmetries = width == height ? 8 : 4;
+    }
+
+    public int getSymmetryCount() {
+        return symmetries;
+    }
+
+    public void toggle(int row, int col, int color) {
+        hashes[0] ^= key(row * width + col, color);
+        if (symmetries == 8) {
+            int n = width - 1;
+            hashes[1] ^= key(col * width + n - row, color);
+            hashes[2] ^= key((n - row) * width + n - col, color);
+            hashes[3] ^= key((n - col) * width + row, color);
+            hashes[4] ^= key(row * width + n - col, color);
+            hashes[5] ^= key((n - row) * width + col, color);
+            hashes[6] ^= key(col * width + row, color);
+            hashes[7] ^= key((n - col) * width + n - row, color);
+        } else {
+            hashes[1] ^= key((height - 1 - row) * width + width - 1 - col, color);
+            hashes[2] ^= key(row * width + width - 1 - col, color);
+            hashes[3] ^= key((height - 1 - row) * width + col, color);
+        }
+    }
+
+    public long get() {
+        return hashes[0];
+    }
+
+    public long get(int symmetry) {
+        return hashes[symmetry];
+    }
+
+    public long getCanonical() {
+        long canonical = hashes[0];
+        for (int i = 1; i < symmetries; i++) {
+            if (Long.compareUnsigned(hashes[i], canonical) < 0) {
+                canonical = hashes[i];
+            }
+        }
+        return canonical;
+    }
+
+    public void clear() {
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = 0;
+        }
+    }
+
+    public void copyFrom(ZobristHash other) {
+        System.arraycopy(other.hashes, 0, hashes, 0, hashes.length);
+    }
+
+    public static long recompute(byte[] cells) {
+        long hash = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != GameEngine.EMPTY) {
+                hash ^= key(i, cells[i]);
+            }
+        }
+        return hash;
+    }
+
+    public static long key(int cell, int color) {
+        return mix(((long) cell << 8 | (color + 1)) * SEED);
+    }
+
+    public static long sequenceKey(int[] values) {
+        long hash = SEED;
+        for (int value : values) {
+            hash = mix(hash ^ value);
+        }
+        return hash;
+    }
+
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,36 @@
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BallSpritesTest {
+    @Test
+    void evictsTheLeastRecentlyUsedSprite() {
+        BallSprites.clear();
+        Image first = BallSprites.get(Color.RED, 1, false, null);
+        Image second = BallSprites.get(Color.RED, 2, false, null);
+        for (int size = 3; size <= 256; size++) {
+            BallSprites.get(Color.RED, size, false, null);
+        }
+        assertEquals(256, BallSprites.size());
+        assertSame(first, BallSprites.get(Color.RED, 1, false, null));
+
+        BallSprites.get(Color.RED, 257, false, null);
+        assertEquals(256, BallSprites.size());
+        assertSame(first, BallSprites.get(Color.RED, 1, false, null));
+        assertNotSame(second, BallSprites.get(Color.RED, 2, false, null));
+        BallSprites.clear();
+    }
+
+    @Test
+    void spritesAreKeyedBySizeColorAndSelection() {
+        BallSprites.clear();
+        Image plain = BallSprites.get(Color.BLUE, 20, false, null);
+        assertSame(plain, BallSprites.get(new Color(Color.BLUE.getRGB()), 20, false, null));
+        assertNotSame(plain, BallSprites.get(Color.BLUE, 20, true, null));
+        assertNotSame(plain, BallSprites.get(Color.GREEN, 20, false, null));
+        assertNotSame(plain, BallSprites.get(Color.BLUE, 21, false, null));
+        BallSprites.clear();
+    }
+}
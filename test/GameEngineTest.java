@@ -0,0 +1,141 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEngineTest {
+    @Test
+    void newGameSpawnsBallsAndNextColors() {
+        GameEngine engine = new GameEngine(GameConfig.DEFAULT, new GameRandom(1));
+        engine.startNewGame(42);
+        int balls = 0;
+        for (int row = 0; row < engine.getHeight(); row++) {
+            for (int col = 0; col < engine.getWidth(); col++) {
+                if (!engine.isEmpty(row, col)) balls++;
+            }
+        }
+        assertEquals(GameConfig.DEFAULT.getSpawnCount(), balls);
+        assertEquals(0, engine.getScore());
+        for (int color : engine.getNextColors()) {
+            assertTrue(color >= 0 && color < GameConfig.DEFAULT.getColorCount());
+        }
+    }
+
+    @Test
+    void sameSeedPlaysTheSameGame() {
+        GameEngine first = new GameEngine(GameConfig.DEFAULT, new GameRandom());
+        GameEngine second = new GameEngine(GameConfig.DEFAULT, new GameRandom());
+        first.startNewGame(7);
+        second.startNewGame(7);
+        assertEquals(first.positionHash(), second.positionHash());
+    }
+
+    @Test
+    void newGameAndRestorePublishOneBoardReset() {
+        GameEngine engine = new GameEngine(GameConfig.DEFAULT, new GameRandom());
+        List<Change> changes = listen(engine);
+        engine.startNewGame(3);
+        assertEquals(1, changes.size());
+        assertTrue(changes.get(0).boardReset);
+        assertTrue(changes.get(0).nextColorsChanged);
+        assertTrue(changes.get(0).cells.isEmpty());
+
+        changes.clear();
+        engine.restore(engine.snapshot());
+        assertEquals(1, changes.size());
+        assertTrue(changes.get(0).boardReset);
+        assertTrue(changes.get(0).nextColorsChanged);
+    }
+
+    @Test
+    void placedTurnPublishesEveryChangedCellOnce() {
+        GameEngine engine = new GameEngine(GameConfig.DEFAULT, new GameRandom(1));
+        engine.restore(stateWith(new int[][]{{0, 0, 0}}));
+        List<Change> changes = listen(engine);
+        GameState before = engine.snapshot();
+
+        assertEquals(GameEngine.TurnResult.PLACED, engine.playTurn(0, 0, 8, 8));
+        assertEquals(1, changes.size());
+        Change change = changes.get(0);
+        assertEquals(differingCells(before, engine.snapshot()), change.cells);
+        assertEquals(2 + GameConfig.DEFAULT.getSpawnCount(), change.cells.size());
+        assertEquals(0, change.scoreDelta);
+        assertTrue(change.nextColorsChanged);
+        assertFalse(change.boardReset);
+    }
+
+    @Test
+    void clearingTurnAndUndoPublishScoreDeltas() {
+        GameEngine engine = new GameEngine(GameConfig.DEFAULT, new GameRandom(1));
+        engine.setHistoryEnabled(true);
+        engine.restore(stateWith(new int[][]{{0, 0, 2}, {0, 1, 2}, {0, 2, 2}, {0, 3, 2}, {1, 4, 2}}));
+        List<Change> changes = listen(engine);
+
+        assertEquals(GameEngine.TurnResult.CLEARED, engine.playTurn(1, 4, 0, 4));
+        assertEquals(1, changes.size());
+        Change cleared = changes.get(0);
+        assertEquals(Set.of(0, 1, 2, 3, 4, 13), cleared.cells);
+        assertTrue(cleared.scoreDelta > 0);
+        assertEquals(engine.getScore(), cleared.scoreDelta);
+        assertTrue(cleared.nextColorsChanged);
+        assertFalse(cleared.boardReset);
+
+        changes.clear();
+        assertTrue(engine.undo());
+        assertEquals(1, changes.size());
+        Change undone = changes.get(0);
+        assertEquals(Set.of(0, 1, 2, 3, 4, 13), undone.cells);
+        assertEquals(-cleared.scoreDelta, undone.scoreDelta);
+        assertTrue(undone.nextColorsChanged);
+        assertFalse(undone.boardReset);
+
+        changes.clear();
+        assertEquals(GameEngine.TurnResult.INVALID, engine.playTurn(2, 2, 3, 3));
+        assertTrue(changes.isEmpty());
+    }
+
+    private static List<Change> listen(GameEngine engine) {
+        List<Change> changes = new ArrayList<>();
+        engine.setListener(change -> changes.add(new Change(change)));
+        return changes;
+    }
+
+    private static GameState stateWith(int[][] balls) {
+        GameState state = new GameState(GameConfig.DEFAULT.getWidth(), GameConfig.DEFAULT.getHeight(), GameConfig.DEFAULT.getSpawnCount());
+        for (int[] ball : balls) {
+            state.boardColors[ball[0]][ball[1]] = ball[2];
+        }
+        state.nextColors = new int[]{4, 5, 6};
+        return state;
+    }
+
+    private static Set<Integer> differingCells(GameState before, GameState after) {
+        Set<Integer> cells = new TreeSet<>();
+        for (int row = 0; row < before.getHeight(); row++) {
+            for (int col = 0; col < before.getWidth(); col++) {
+                if (before.boardColors[row][col] != after.boardColors[row][col]) cells.add(row * before.getWidth() + col);
+            }
+        }
+        return cells;
+    }
+
+    private static final class Change {
+        final Set<Integer> cells = new TreeSet<>();
+        final int scoreDelta;
+        final boolean nextColorsChanged;
+        final boolean boardReset;
+
+        Change(GameChange change) {
+            for (int i = 0; i < change.getChangedCount(); i++) {
+                assertTrue(cells.add(change.getChangedCell(i)), "cell reported twice");
+            }
+            scoreDelta = change.getScoreDelta();
+            nextColorsChanged = change.isNextColorsChanged();
+            boardReset = change.isBoardReset();
+        }
+    }
+}
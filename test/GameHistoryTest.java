@@ -0,0 +1,128 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameHistoryTest {
+    @Test
+    void undoThenRedoRestoresEveryStep() {
+        GameEngine engine = newEngine();
+        MovePolicy policy = MovePolicy.forName("greedy");
+        Random random = new Random(5);
+        int[] move = new int[4];
+        int turns = 0;
+        for (; turns < 60 && policy.chooseMove(engine, random, move); turns++) {
+            if (engine.playTurn(move[0], move[1], move[2], move[3]) == GameEngine.TurnResult.GAME_OVER) break;
+        }
+        State played = new State(engine);
+
+        int undone = 0;
+        while (engine.undo()) {
+            undone++;
+        }
+        assertTrue(undone >= turns);
+        for (int i = 0; i < undone; i++) {
+            assertTrue(engine.redo());
+        }
+        assertFalse(engine.redo());
+        assertEquals(played, new State(engine));
+    }
+
+    @Test
+    void invalidMoveKeepsRedoSteps() {
+        GameEngine engine = newEngine();
+        MovePolicy policy = MovePolicy.forName("random");
+        Random random = new Random(9);
+        int[] move = new int[4];
+        for (int turn = 0; turn < 10 && policy.chooseMove(engine, random, move); turn++) {
+            engine.playTurn(move[0], move[1], move[2], move[3]);
+        }
+        State played = new State(engine);
+        assertTrue(engine.undo());
+        assertTrue(engine.undo());
+
+        int[] empty = findCell(engine, true);
+        int[] other = findCell(engine, true, empty);
+        assertEquals(GameEngine.TurnResult.INVALID, engine.playTurn(empty[0], empty[1], other[0], other[1]));
+        assertEquals(2, engine.getHistory().getRedoCount());
+
+        assertTrue(engine.redo());
+        assertTrue(engine.redo());
+        assertEquals(played, new State(engine));
+    }
+
+    @Test
+    void spawnsAfterUndoAndRedoMatchAGameWithoutThem() {
+        GameEngine plain = newEngine();
+        GameEngine rewound = newEngine();
+        MovePolicy policy = MovePolicy.forName("greedy");
+        int[] move = new int[4];
+        for (int turn = 0; turn < 80 && policy.chooseMove(plain, new Random(turn), move); turn++) {
+            GameEngine.TurnResult result = plain.playTurn(move[0], move[1], move[2], move[3]);
+            assertEquals(result, rewound.playTurn(move[0], move[1], move[2], move[3]));
+            if (result == GameEngine.TurnResult.GAME_OVER) break;
+            if (turn % 7 == 6) {
+                assertTrue(rewound.undo());
+                assertTrue(rewound.undo());
+                assertTrue(rewound.redo());
+                assertTrue(rewound.redo());
+            }
+            assertEquals(new State(plain), new State(rewound));
+            assertEquals(plain.countEmpty(), rewound.countEmpty());
+        }
+    }
+
+    private static GameEngine newEngine() {
+        GameEngine engine = new GameEngine(GameConfig.DEFAULT, new GameRandom());
+        engine.setHistoryEnabled(true);
+        engine.startNewGame(21);
+        return engine;
+    }
+
+    private static int[] findCell(GameEngine engine, boolean empty, int[]... skip) {
+        for (int row = 0; row < engine.getHeight(); row++) {
+            for (int col = 0; col < engine.getWidth(); col++) {
+                int r = row, c = col;
+                if (engine.isEmpty(row, col) == empty && Arrays.stream(skip).noneMatch(s -> s[0] == r && s[1] == c)) {
+                    return new int[]{row, col};
+                }
+            }
+        }
+        throw new AssertionError("No matching cell");
+    }
+
+    private static final class State {
+        final int[] cells;
+        final int score;
+        final int[] next;
+        final long random;
+
+        State(GameEngine engine) {
+            cells = new int[engine.getWidth() * engine.getHeight()];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = engine.getColor(i / engine.getWidth(), i % engine.getWidth());
+            }
+            score = engine.getScore();
+            next = engine.getNextColors().clone();
+            random = ((GameRandom) engine.getRandom()).getState();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof State state && Arrays.equals(cells, state.cells) && score == state.score
+                    && Arrays.equals(next, state.next) && random == state.random;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(cells);
+        }
+
+        @Override
+        public String toString() {
+            return "score " + score + ", next " + Arrays.toString(next) + ", random " + random + ", cells " + Arrays.toString(cells);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRandomTest {
+    @Test
+    void sameSeedGivesTheSameSequence() {
+        GameRandom first = new GameRandom(42);
+        GameRandom second = new GameRandom(42);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.nextLong(), second.nextLong());
+            assertEquals(first.nextInt(81), second.nextInt(81));
+        }
+        assertNotEquals(new GameRandom(42).nextLong(), new GameRandom(43).nextLong());
+    }
+
+    @Test
+    void splitStreamsAreDeterministicAndIndependent() {
+        GameRandom parent = new GameRandom(5);
+        long state = parent.getState();
+        GameRandom a = parent.split(0);
+        GameRandom b = parent.split(1);
+        assertEquals(state, parent.getState());
+
+        GameRandom again = new GameRandom(5).split(0);
+        long[] first = new long[256];
+        for (int i = 0; i < first.length; i++) {
+            first[i] = a.nextLong();
+            assertEquals(first[i], again.nextLong());
+        }
+        for (int i = 0; i < first.length; i++) {
+            long value = b.nextLong();
+            for (long other : first) {
+                assertNotEquals(other, value);
+            }
+        }
+
+        GameRandom untouched = new GameRandom(5).split(1);
+        GameRandom sibling = new GameRandom(5).split(0);
+        for (int i = 0; i < 100; i++) {
+            sibling.nextLong();
+        }
+        assertEquals(new GameRandom(5).split(1).nextLong(), untouched.nextLong());
+        assertEquals(new GameRandom(5).split().nextLong(), new GameRandom(5).split().nextLong());
+    }
+
+    @Test
+    void skipMovesTheStreamByWholeDraws() {
+        GameRandom drawn = new GameRandom(9);
+        GameRandom skipped = new GameRandom(9);
+        long start = skipped.getState();
+        for (int i = 0; i < 37; i++) {
+            drawn.nextLong();
+        }
+        skipped.skip(37);
+        assertEquals(drawn.getState(), skipped.getState());
+        assertEquals(37, GameRandom.distance(start, skipped.getState()));
+        skipped.skip(-37);
+        assertEquals(start, skipped.getState());
+    }
+
+    @Test
+    void sameSeedPlaysTheSameGameAndSavesContinueIdentically() throws Exception {
+        MovePolicy policy = MovePolicy.forName("greedy");
+        int[] move = new int[4];
+        GameEngine first = new GameEngine(GameConfig.DEFAULT, new GameRandom());
+        GameEngine second = new GameEngine(GameConfig.DEFAULT, new GameRandom());
+        first.startNewGame(42);
+        second.startNewGame(42);
+        for (int turn = 0; turn < 20 && policy.chooseMove(first, new Random(turn), move); turn++) {
+            first.playTurn(move[0], move[1], move[2], move[3]);
+            second.playTurn(move[0], move[1], move[2], move[3]);
+            assertEquals(first.positionHash(), second.positionHash());
+        }
+
+        GameEngine loaded = new GameEngine(GameConfig.DEFAULT, new GameRandom());
+        loaded.restore(SaveFormat.decode(SaveFormat.encode(first.snapshot())));
+        assertEquals(first.positionHash(), loaded.positionHash());
+        for (int turn = 0; turn < 50 && policy.chooseMove(first, new Random(turn), move); turn++) {
+            assertEquals(first.playTurn(move[0], move[1], move[2], move[3]), loaded.playTurn(move[0], move[1], move[2], move[3]));
+            assertEquals(first.positionHash(), loaded.positionHash());
+            assertArrayEquals(first.getNextColors(), loaded.getNextColors());
+        }
+    }
+
+    @Test
+    void simulatorResultsDoNotDependOnThreadCount() throws Exception {
+        String expected = null;
+        for (int threads : new int[]{1, 2, 4}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new Simulator(GameConfig.DEFAULT, "greedy", 100, threads, 5, 1_000_000).run().print(new PrintStream(out));
+            String scores = out.toString().lines().filter(line -> line.startsWith("Score") || line.startsWith("Length"))
+                    .reduce("", String::concat);
+            assertFalse(scores.isEmpty());
+            if (expected == null) expected = scores;
+            assertEquals(expected, scores, threads + " threads");
+        }
+    }
+}
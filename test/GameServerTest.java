@@ -0,0 +1,62 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+    @Test
+    void sessionPlaysUndoesAndQuitsOverLoopback() throws Exception {
+        try (GameServer server = new GameServer(GameConfig.DEFAULT, new InetSocketAddress("localhost", 0))) {
+            server.serveInBackground();
+            try (SocketChannel channel = SocketChannel.open(server.getAddress());
+                 BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+                 Writer out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8))) {
+                assertEquals("OK 5", send(in, out, "NEW 5"));
+                GameEngine mirror = new GameEngine(GameConfig.DEFAULT, new GameRandom());
+                mirror.startNewGame(5);
+                assertEquals("OK " + board(mirror), send(in, out, "BOARD"));
+
+                int[] move = new int[4];
+                assertTrue(MovePolicy.forName("random").chooseMove(mirror, new Random(1), move));
+                String command = "MOVE " + move[0] + " " + move[1] + " " + move[2] + " " + move[3];
+                String played = send(in, out, command);
+                GameEngine.TurnResult result = mirror.playTurn(move[0], move[1], move[2], move[3]);
+                assertEquals("OK " + result + " " + mirror.getScore(), played);
+                assertEquals("OK " + board(mirror), send(in, out, "BOARD"));
+
+                assertEquals("OK 0", send(in, out, "UNDO"));
+                assertEquals("ERR nothing to undo", send(in, out, "UNDO"));
+                assertEquals(played, send(in, out, command));
+                assertEquals("ERR invalid move", send(in, out, "MOVE 0 0 0 0"));
+                assertTrue(send(in, out, "JUMP").startsWith("ERR unknown command"));
+
+                assertEquals("OK bye", send(in, out, "QUIT"));
+                assertNull(in.readLine());
+            }
+        }
+    }
+
+    private static String board(GameEngine engine) {
+        StringBuilder board = new StringBuilder(engine.getWidth() + " " + engine.getHeight());
+        for (int row = 0; row < engine.getHeight(); row++) {
+            for (int col = 0; col < engine.getWidth(); col++) {
+                int color = engine.getColor(row, col);
+                board.append(' ').append(color == GameEngine.EMPTY ? "." : String.valueOf(color));
+            }
+        }
+        return board.toString();
+    }
+
+    private static String send(BufferedReader in, Writer out, String command) throws IOException {
+        out.write(command);
+        out.write('\n');
+        out.flush();
+        return in.readLine();
+    }
+}
@@ -0,0 +1,94 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void writersSharingTheFilesSeeEachOthersRecords() throws Exception {
+        File file = directory.resolve("leaderboard.dat").toFile();
+        try (Leaderboard first = new Leaderboard(file); Leaderboard second = new Leaderboard(file)) {
+            assertEquals(1, first.add(new Leaderboard.Entry("a", 100, 10, 1000, 1)));
+            assertEquals(1, second.add(new Leaderboard.Entry("b", 300, 10, 1000, 2)));
+            assertEquals(2, first.add(new Leaderboard.Entry("c", 200, 10, 1000, 3)));
+            assertEquals(4, second.add(new Leaderboard.Entry("d", 50, 10, 1000, 4)));
+        }
+        try (Leaderboard reopened = new Leaderboard(file)) {
+            List<Leaderboard.Entry> top = reopened.top(10);
+            assertEquals(4, top.size());
+            assertEquals(List.of("b", "c", "a", "d"), top.stream().map(entry -> entry.player).toList());
+            assertEquals(2, reopened.rankOf(200));
+        }
+    }
+
+    @Test
+    void writerRemapsWhenAnotherProcessGrewTheFile() throws Exception {
+        File file = directory.resolve("leaderboard.dat").toFile();
+        try (Leaderboard small = new Leaderboard(file); Leaderboard large = new Leaderboard(file)) {
+            for (int i = 0; i < 5000; i++) {
+                large.add(new Leaderboard.Entry("bulk", i, 1, 1, i));
+            }
+            assertEquals(1, small.add(new Leaderboard.Entry("top", 10_000, 1, 1, 0)));
+            assertEquals(5002, large.add(new Leaderboard.Entry("last", -1, 1, 1, 0)));
+        }
+    }
+
+    @Test
+    void readersSeeRecordsAddedThroughAnotherInstance() throws Exception {
+        File file = directory.resolve("leaderboard.dat").toFile();
+        try (Leaderboard reader = new Leaderboard(file); Leaderboard writer = new Leaderboard(file)) {
+            assertEquals(0, reader.size());
+            for (int i = 0; i < 5000; i++) {
+                writer.add(new Leaderboard.Entry("bulk", i, 1, 1, i));
+            }
+            assertEquals(5000, reader.size());
+            assertEquals(4999, reader.getBestScore());
+            assertEquals(4999, reader.get(0).score);
+            assertEquals(3, reader.top(3).size());
+            assertEquals(5001, reader.rankOf(-1));
+        }
+    }
+
+    @Test
+    void corruptNameLengthReadsAsEmptyName() throws Exception {
+        File file = directory.resolve("leaderboard.dat").toFile();
+        try (Leaderboard leaderboard = new Leaderboard(file)) {
+            leaderboard.add(new Leaderboard.Entry("player", 10, 1, 1, 0));
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(16 + 24);
+            raw.writeShort(-5);
+        }
+        try (Leaderboard leaderboard = new Leaderboard(file)) {
+            assertEquals("", leaderboard.get(0).player);
+            assertEquals(10, leaderboard.get(0).score);
+        }
+    }
+
+    @Test
+    void highScoreComesFromTheLeaderboard() throws Exception {
+        File file = directory.resolve("leaderboard.dat").toFile();
+        try (Leaderboard other = new Leaderboard(file)) {
+            other.add(new Leaderboard.Entry("a", 400, 10, 1000, 1));
+        }
+        ScoreManager scores = new ScoreManager(file);
+        assertEquals(400, scores.getHighScore());
+        scores.setScore(250);
+        scores.recordGame("b", 12, 1000);
+        assertEquals(400, scores.getHighScore());
+        scores.getLeaderboard().close();
+
+        ScoreManager reopened = new ScoreManager(file);
+        assertEquals(400, reopened.getHighScore());
+        assertEquals(2, reopened.getLeaderboard().size());
+        reopened.getLeaderboard().close();
+    }
+}
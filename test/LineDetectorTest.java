@@ -0,0 +1,150 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineDetectorTest {
+    private static final int[] ROW_STEP = {0, 1, 1, 1};
+    private static final int[] COL_STEP = {1, 0, 1, -1};
+
+    @Test
+    void bitboardMatchesNaiveScanOnRandomBoards() {
+        Random random = new Random(1);
+        for (int round = 0; round < 3000; round++) {
+            int width = 3 + random.nextInt(18);
+            int height = 3 + random.nextInt(18);
+            int connect = 2 + random.nextInt(Math.min(4, Math.max(width, height) - 1));
+            int colors = 1 + random.nextInt(7);
+            byte[] cells = randomBoard(random, width, height, colors, random.nextDouble());
+            LineDetector detector = detectorFor(cells, width, height, colors, connect);
+
+            boolean[] expected = naiveClear(cells, width, height, connect);
+            int cleared = detector.detect();
+            assertEquals(count(expected), cleared, () -> describe(cells, width, height, connect));
+            for (int i = 0; i < cells.length; i++) {
+                assertEquals(expected[i], isSet(detector.getClearMask(), detector.getStride(), width, i), "cell " + i);
+            }
+            assertEquals(count(naiveCross(expected, width, height)), detector.getCrossCount());
+        }
+    }
+
+    @Test
+    void incrementalMatchesNaiveScanAroundChangedCells() {
+        Random random = new Random(2);
+        for (int round = 0; round < 3000; round++) {
+            int width = 5 + random.nextInt(16);
+            int height = 5 + random.nextInt(16);
+            int connect = 3 + random.nextInt(3);
+            int colors = 1 + random.nextInt(7);
+            byte[] cells = randomBoard(random, width, height, colors, random.nextDouble());
+            removeLines(cells, width, height, connect);
+
+            int[] changed = new int[1 + random.nextInt(4)];
+            int count = 0;
+            for (int i = 0; i < changed.length; i++) {
+                int index = random.nextInt(cells.length);
+                if (cells[index] != GameEngine.EMPTY) continue;
+                cells[index] = (byte) random.nextInt(Math.min(colors, 2));
+                changed[count++] = index;
+            }
+
+            boolean[] expected = naiveClear(cells, width, height, connect);
+            IncrementalLineDetector detector = new IncrementalLineDetector(cells, width, height, connect);
+            int marked = detector.detect(changed, count);
+            assertEquals(count(expected), marked, () -> describe(cells, width, height, connect));
+            for (int i = 0; i < marked; i++) {
+                assertTrue(expected[detector.getMarked()[i]]);
+            }
+            assertEquals(count(naiveCross(expected, width, height)), detector.getCrossCount());
+        }
+    }
+
+    private static byte[] randomBoard(Random random, int width, int height, int colors, double fill) {
+        byte[] cells = new byte[width * height];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = random.nextDouble() < fill ? (byte) random.nextInt(colors) : GameEngine.EMPTY;
+        }
+        return cells;
+    }
+
+    private static void removeLines(byte[] cells, int width, int height, int connect) {
+        boolean[] clear;
+        while (count(clear = naiveClear(cells, width, height, connect)) > 0) {
+            for (int i = 0; i < cells.length; i++) {
+                if (clear[i]) cells[i] = GameEngine.EMPTY;
+            }
+        }
+    }
+
+    private static LineDetector detectorFor(byte[] cells, int width, int height, int colors, int connect) {
+        LineDetector detector = new LineDetector(width, height, colors, connect);
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != GameEngine.EMPTY) detector.set(i / width, i % width, cells[i]);
+        }
+        return detector;
+    }
+
+    private static boolean[] naiveClear(byte[] cells, int width, int height, int connect) {
+        boolean[] clear = new boolean[cells.length];
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                int color = cells[row * width + col];
+                if (color == GameEngine.EMPTY) continue;
+                for (int dir = 0; dir < 4; dir++) {
+                    int length = 0;
+                    int r = row, c = col;
+                    while (r >= 0 && r < height && c >= 0 && c < width && cells[r * width + c] == color) {
+                        length++;
+                        r += ROW_STEP[dir];
+                        c += COL_STEP[dir];
+                    }
+                    if (length < connect) continue;
+                    for (int i = 0; i < length; i++) {
+                        clear[(row + i * ROW_STEP[dir]) * width + col + i * COL_STEP[dir]] = true;
+                    }
+                }
+            }
+        }
+        return clear;
+    }
+
+    private static boolean[] naiveCross(boolean[] clear, int width, int height) {
+        boolean[] cross = new boolean[clear.length];
+        for (int row = 1; row < height - 1; row++) {
+            for (int col = 1; col < width - 1; col++) {
+                int i = row * width + col;
+                if (clear[i] && clear[i - 1] && clear[i + 1] && clear[i - width] && clear[i + width]) {
+                    cross[i] = cross[i - 1] = cross[i + 1] = cross[i - width] = cross[i + width] = true;
+                }
+            }
+        }
+        return cross;
+    }
+
+    private static int count(boolean[] flags) {
+        int count = 0;
+        for (boolean flag : flags) {
+            if (flag) count++;
+        }
+        return count;
+    }
+
+    private static boolean isSet(long[] mask, int stride, int width, int index) {
+        int bit = index / width * stride + index % width;
+        return (mask[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static String describe(byte[] cells, int width, int height, int connect) {
+        StringBuilder board = new StringBuilder(width + "x" + height + ", connect " + connect + "\n");
+        for (int row = 0; row < height; row++) {
+            byte[] line = Arrays.copyOfRange(cells, row * width, row * width + width);
+            for (byte cell : line) {
+                board.append(cell == GameEngine.EMPTY ? '.' : (char) ('0' + cell));
+            }
+            board.append('\n');
+        }
+        return board.toString();
+    }
+}
@@ -0,0 +1,52 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void fullReplayFollowsCheckpointsWrittenAfterUndo() throws Exception {
+        File file = directory.resolve("game.journal").toFile();
+        GameEngine engine = new GameEngine(GameConfig.DEFAULT, new GameRandom());
+        engine.setHistoryEnabled(true);
+        MovePolicy policy = MovePolicy.forName("greedy");
+        Random random = new Random(3);
+        int[] move = new int[4];
+
+        try (MoveJournal journal = new MoveJournal(file)) {
+            engine.setRecorder(journal);
+            engine.startNewGame(11);
+            journal.reset(engine.snapshot());
+            play(engine, policy, random, move, 12);
+            assertTrue(engine.undo());
+            assertTrue(engine.undo());
+            journal.checkpoint(engine.snapshot());
+            play(engine, policy, random, move, 8);
+            assertTrue(engine.undo());
+            journal.checkpoint(engine.snapshot());
+            assertTrue(engine.redo());
+            journal.checkpoint(engine.snapshot());
+            play(engine, policy, random, move, 5);
+            journal.force();
+        }
+
+        GameEngine replayed = new GameEngine(GameConfig.DEFAULT, new GameRandom());
+        MoveJournal.replay(file, replayed);
+        assertEquals(engine.positionHash(), replayed.positionHash());
+        assertEquals(engine.getScore(), replayed.getScore());
+        assertEquals(((GameRandom) engine.getRandom()).getState(), ((GameRandom) replayed.getRandom()).getState());
+    }
+
+    private static void play(GameEngine engine, MovePolicy policy, Random random, int[] move, int turns) {
+        for (int turn = 0; turn < turns && policy.chooseMove(engine, random, move); turn++) {
+            if (engine.playTurn(move[0], move[1], move[2], move[3]) == GameEngine.TurnResult.GAME_OVER) return;
+        }
+    }
+}
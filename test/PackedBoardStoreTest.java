@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedBoardStoreTest {
+    @TempDir
+    File directory;
+
+    @Test
+    void loadedStoreAcceptsAppendsAfterClear() throws IOException {
+        PackedBoardStore store = new PackedBoardStore(500, 500, 7, 3);
+        int fullPage = (1 << 22) / store.getRecordSize();
+        for (int i = 0; i < fullPage + 1; i++) {
+            store.append(new PatternBoard(500, 500, 7, i));
+        }
+        File file = new File(directory, "boards.dat");
+        store.dump(file);
+
+        PackedBoardStore loaded = PackedBoardStore.load(file);
+        assertEquals(fullPage + 1, loaded.size());
+        assertSameBoard(new PatternBoard(500, 500, 7, fullPage), loaded.get(fullPage));
+        loaded.clear();
+        assertEquals(0, loaded.append(new PatternBoard(500, 500, 7, 99)));
+        assertSameBoard(new PatternBoard(500, 500, 7, 99), loaded.get(0));
+    }
+
+    @Test
+    void recordsLargerThanAPageStillFit() {
+        PackedBoardStore store = new PackedBoardStore(3000, 3000, 15, 3);
+        assertTrue(store.getRecordSize() > 1 << 22);
+        store.append(new PatternBoard(3000, 3000, 15, 1));
+        store.append(new PatternBoard(3000, 3000, 15, 2));
+        assertSameBoard(new PatternBoard(3000, 3000, 15, 1), store.get(0));
+        assertSameBoard(new PatternBoard(3000, 3000, 15, 2), store.get(1));
+    }
+
+    private static void assertSameBoard(BoardView expected, BoardView actual) {
+        assertEquals(expected.getScore(), actual.getScore());
+        for (int i = 0; i < expected.getNextColorCount(); i++) {
+            assertEquals(expected.getNextColor(i), actual.getNextColor(i));
+        }
+        for (int row = 0; row < expected.getHeight(); row++) {
+            for (int col = 0; col < expected.getWidth(); col++) {
+                assertEquals(expected.getColor(row, col), actual.getColor(row, col));
+            }
+        }
+    }
+
+    private record PatternBoard(int width, int height, int colors, int seed) implements BoardView {
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public int getColor(int row, int col) {
+            return Math.floorMod(row * 31 + col * 17 + seed, colors + 1) - 1;
+        }
+
+        @Override
+        public int getNextColorCount() {
+            return 3;
+        }
+
+        @Override
+        public int getNextColor(int index) {
+            return (seed + index) % colors;
+        }
+
+        @Override
+        public int getScore() {
+            return seed * 10;
+        }
+    }
+}
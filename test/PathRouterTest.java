@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathRouterTest {
+    @Test
+    void pathsMatchBreadthFirstSearchOnRandomBoards() {
+        Random random = new Random(6);
+        for (int round = 0; round < 400; round++) {
+            int width = 1 + random.nextInt(20);
+            int height = 1 + random.nextInt(20);
+            byte[] cells = new byte[width * height];
+            double fill = random.nextDouble() * 0.7;
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = random.nextDouble() < fill ? (byte) random.nextInt(7) : GameEngine.EMPTY;
+            }
+            PathRouter router = new PathRouter(cells, width, height);
+            int[] path = new int[cells.length];
+            for (int query = 0; query < 50; query++) {
+                int from = random.nextInt(cells.length);
+                int to = random.nextInt(cells.length);
+                int expected = shortestLength(cells, width, height, from, to);
+                String where = width + "x" + height + " from " + from + " to " + to;
+                assertEquals(expected, router.findPath(from, to, null), where);
+                Arrays.fill(path, -1);
+                int length = router.findPath(from, to, path);
+                assertEquals(expected, length, where);
+                if (length > 0) assertValidPath(cells, width, path, length, from, to, where);
+            }
+        }
+    }
+
+    @Test
+    void engineFindPathAgreesWithReachability() {
+        GameEngine engine = new GameEngine(new GameConfig(15, 11, 5, 6, 4), new GameRandom());
+        engine.startNewGame(12);
+        MovePolicy policy = MovePolicy.forName("random");
+        Random random = new Random(12);
+        int[] move = new int[4];
+        int[] path = new int[15 * 11];
+        for (int turn = 0; turn < 100; turn++) {
+            for (int query = 0; query < 20; query++) {
+                int fromRow = random.nextInt(11), fromCol = random.nextInt(15);
+                int toRow = random.nextInt(11), toCol = random.nextInt(15);
+                int length = engine.findPath(fromRow, fromCol, toRow, toCol, path);
+                boolean reachable = (fromRow != toRow || fromCol != toCol) && engine.isEmpty(toRow, toCol)
+                        && engine.canReach(fromRow, fromCol, toRow, toCol);
+                assertEquals(reachable, length > 0);
+                assertEquals(reachable, engine.hasPath(fromRow, fromCol, toRow, toCol));
+            }
+            if (!policy.chooseMove(engine, random, move)
+                    || engine.playTurn(move[0], move[1], move[2], move[3]) == GameEngine.TurnResult.GAME_OVER) {
+                engine.startNewGame(turn);
+            }
+        }
+    }
+
+    private static void assertValidPath(byte[] cells, int width, int[] path, int length, int from, int to, String where) {
+        assertEquals(from, path[0], where);
+        assertEquals(to, path[length - 1], where);
+        for (int i = 1; i < length; i++) {
+            int a = path[i - 1], b = path[i];
+            boolean adjacent = Math.abs(a - b) == width || (Math.abs(a - b) == 1 && a / width == b / width);
+            assertTrue(adjacent, where + ": step " + a + " -> " + b);
+            assertEquals(GameEngine.EMPTY, cells[b], where + ": path crosses a ball at " + b);
+        }
+    }
+
+    private static int shortestLength(byte[] cells, int width, int height, int from, int to) {
+        if (from == to || cells[to] != GameEngine.EMPTY) return -1;
+        int[] distance = new int[cells.length];
+        Arrays.fill(distance, -1);
+        distance[from] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(from);
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            if (cell == to) return distance[cell] + 1;
+            int row = cell / width, col = cell % width;
+            int[] neighbours = {
+                    row > 0 ? cell - width : -1,
+                    row < height - 1 ? cell + width : -1,
+                    col > 0 ? cell - 1 : -1,
+                    col < width - 1 ? cell + 1 : -1
+            };
+            for (int next : neighbours) {
+                if (next >= 0 && distance[next] < 0 && cells[next] == GameEngine.EMPTY) {
+                    distance[next] = distance[cell] + 1;
+                    queue.add(next);
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,168 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReachabilityIndexTest {
+    @Test
+    void indexMatchesFloodFillUnderRandomEdits() {
+        Random random = new Random(3);
+        for (int size = 5; size <= 20; size++) {
+            int width = size;
+            int height = 5 + random.nextInt(16);
+            byte[] cells = new byte[width * height];
+            Arrays.fill(cells, GameEngine.EMPTY);
+            ReachabilityIndex index = new ReachabilityIndex(cells, width, height);
+            int[] undo = new int[4000];
+            int undoCount = 0;
+            int redoCount = 0;
+            double fill = 0.2 + random.nextDouble() * 0.6;
+
+            for (int step = 0; step < 2000; step++) {
+                int action = random.nextInt(10);
+                int cell;
+                if (action < 2 && undoCount > 0) {
+                    cell = undo[--undoCount];
+                    redoCount++;
+                } else if (action < 3 && redoCount > 0) {
+                    cell = undo[undoCount++];
+                    redoCount--;
+                } else {
+                    cell = random.nextInt(cells.length);
+                    boolean wantFilled = random.nextDouble() < fill;
+                    if ((cells[cell] != GameEngine.EMPTY) == wantFilled) continue;
+                    undo[undoCount++] = cell;
+                    redoCount = 0;
+                    if (undoCount == undo.length) undoCount = 0;
+                }
+                if (cells[cell] == GameEngine.EMPTY) {
+                    cells[cell] = 0;
+                    index.onFilled(cell);
+                } else {
+                    cells[cell] = GameEngine.EMPTY;
+                    index.onEmptied(cell);
+                }
+                assertMatchesFloodFill(cells, width, height, index, "step " + step + " on " + width + "x" + height);
+            }
+        }
+    }
+
+    @Test
+    void engineReachabilityMatchesFloodFillWithUndoAndRedo() {
+        Random random = new Random(4);
+        MovePolicy policy = MovePolicy.forName("random");
+        int[] move = new int[4];
+        for (int size = 5; size <= 20; size += 3) {
+            GameEngine engine = new GameEngine(new GameConfig(size, size, 4, 4, Math.max(2, size / 3)), new GameRandom());
+            engine.setHistoryEnabled(true);
+            engine.startNewGame(size);
+            int[] out = new int[size * size];
+            for (int step = 0; step < 150; step++) {
+                int action = random.nextInt(10);
+                if (action < 2) {
+                    engine.undo();
+                } else if (action < 3) {
+                    engine.redo();
+                } else if (!policy.chooseMove(engine, random, move)
+                        || engine.playTurn(move[0], move[1], move[2], move[3]) == GameEngine.TurnResult.GAME_OVER) {
+                    engine.startNewGame(random.nextLong());
+                }
+                assertEngineMatchesFloodFill(engine, out, "step " + step + " on " + size + "x" + size);
+            }
+        }
+    }
+
+    private static void assertMatchesFloodFill(byte[] cells, int width, int height, ReachabilityIndex index, String where) {
+        int[] components = floodFill(cells, width, height);
+        int[] sizes = new int[cells.length + 1];
+        for (int component : components) {
+            sizes[component]++;
+        }
+        Map<Integer, Integer> labelToComponent = new HashMap<>();
+        Map<Integer, Integer> componentToLabel = new HashMap<>();
+        for (int i = 0; i < cells.length; i++) {
+            int label = index.getLabel(i);
+            int region = components[i];
+            if (region == 0) {
+                assertEquals(0, label, where + ": filled cell " + i + " has a label");
+                continue;
+            }
+            assertNotEquals(0, label, where + ": empty cell " + i + " has no label");
+            assertEquals(region, labelToComponent.computeIfAbsent(label, l -> region),
+                    where + ": label " + label + " spans two regions");
+            assertEquals(label, componentToLabel.computeIfAbsent(region, r -> label),
+                    where + ": region of cell " + i + " has two labels");
+            assertEquals(sizes[region], index.getComponentSize(i), where + ": size of region at " + i);
+        }
+    }
+
+    private static void assertEngineMatchesFloodFill(GameEngine engine, int[] out, String where) {
+        int width = engine.getWidth();
+        byte[] cells = new byte[width * engine.getHeight()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) engine.getColor(i / width, i % width);
+        }
+        int[] components = floodFill(cells, width, engine.getHeight());
+        for (int from = 0; from < cells.length; from++) {
+            boolean[] expected = reachableFrom(from, components, width, engine.getHeight());
+            boolean[] actual = new boolean[cells.length];
+            int found = engine.getReachableCells(from / width, from % width, out);
+            for (int i = 0; i < found; i++) {
+                actual[out[i]] = true;
+            }
+            assertArrayEquals(expected, actual, where + ": cells reachable from " + from);
+            for (int to = 0; to < cells.length; to++) {
+                assertEquals(expected[to], engine.canReach(from / width, from % width, to / width, to % width),
+                        where + ": " + from + " to " + to);
+            }
+        }
+    }
+
+    private static boolean[] reachableFrom(int from, int[] components, int width, int height) {
+        boolean[] regions = new boolean[components.length + 1];
+        regions[components[from]] = true;
+        int row = from / width, col = from % width;
+        if (row > 0) regions[components[from - width]] = true;
+        if (row < height - 1) regions[components[from + width]] = true;
+        if (col > 0) regions[components[from - 1]] = true;
+        if (col < width - 1) regions[components[from + 1]] = true;
+        boolean[] reachable = new boolean[components.length];
+        for (int i = 0; i < components.length; i++) {
+            reachable[i] = components[i] != 0 && regions[components[i]];
+        }
+        return reachable;
+    }
+
+    private static int[] floodFill(byte[] cells, int width, int height) {
+        int[] components = new int[cells.length];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int next = 0;
+        for (int start = 0; start < cells.length; start++) {
+            if (cells[start] != GameEngine.EMPTY || components[start] != 0) continue;
+            components[start] = ++next;
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                int cell = queue.poll();
+                int row = cell / width, col = cell % width;
+                int[] neighbours = {
+                        row > 0 ? cell - width : -1,
+                        row < height - 1 ? cell + width : -1,
+                        col > 0 ? cell - 1 : -1,
+                        col < width - 1 ? cell + 1 : -1
+                };
+                for (int neighbour : neighbours) {
+                    if (neighbour >= 0 && cells[neighbour] == GameEngine.EMPTY && components[neighbour] == 0) {
+                        components[neighbour] = next;
+                        queue.add(neighbour);
+                    }
+                }
+            }
+        }
+        return components;
+    }
+}
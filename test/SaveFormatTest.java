@@ -0,0 +1,152 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.InvalidObjectException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaveFormatTest {
+    private static final int HEADER_SIZE = 16;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void encodeThenDecodeRestoresEveryField() throws IOException {
+        for (int colors : new int[]{1, 7, 200}) {
+            GameState state = randomState(12, 7, colors, 4);
+            assertSameState(state, SaveFormat.decode(SaveFormat.encode(state)), 3);
+        }
+    }
+
+    @Test
+    void corruptedBytesFailTheChecksum() {
+        ByteBuffer bytes = SaveFormat.encode(randomState(9, 9, 7, 3));
+        int middle = bytes.limit() / 2;
+        bytes.put(middle, (byte) (bytes.get(middle) ^ 1));
+        IOException error = assertThrows(IOException.class, () -> SaveFormat.decode(bytes));
+        assertTrue(error.getMessage().contains("checksum"), error.getMessage());
+    }
+
+    @Test
+    void everySupportedVersionDecodes() throws IOException {
+        GameState state = randomState(9, 9, 7, 3);
+        for (int version = 1; version <= SaveFormat.VERSION; version++) {
+            assertSameState(state, SaveFormat.decode(asVersion(SaveFormat.encode(state), state, version)), version);
+        }
+        ByteBuffer future = asVersion(SaveFormat.encode(state), state, SaveFormat.VERSION);
+        future.put(4, (byte) (SaveFormat.VERSION + 1));
+        assertThrows(IOException.class, () -> SaveFormat.decode(future));
+    }
+
+    @Test
+    void legacySerializedSavesStillLoad() throws IOException {
+        GameState state = randomState(9, 9, 7, 3);
+        GameState loaded = SaveFormat.decode(ByteBuffer.wrap(serialize(state)));
+        assertSameState(state, loaded, 3);
+    }
+
+    @Test
+    void legacyPathRejectsOtherClasses() {
+        ArrayList<Serializable> payload = new ArrayList<>();
+        payload.add(new GameState());
+        assertThrows(InvalidClassException.class, () -> SaveFormat.decode(ByteBuffer.wrap(serialize(payload))));
+        assertThrows(InvalidObjectException.class, () -> SaveFormat.decode(ByteBuffer.wrap(serialize("not a save"))));
+    }
+
+    @Test
+    void readLoadsWhatTheAutoSaverWrote() throws IOException {
+        File file = new File(directory, "game_save.dat");
+        GameState state = randomState(9, 9, 7, 3);
+        AutoSaver saver = new AutoSaver(file);
+        saver.save(randomState(9, 9, 7, 3));
+        saver.save(state);
+        saver.flush();
+        assertSameState(state, SaveFormat.read(file), 3);
+    }
+
+    @Test
+    void unreadableSaveIsKeptAside() throws IOException {
+        File file = new File(directory, "game_save.dat");
+        Files.write(file.toPath(), new byte[]{1, 2, 3, 4, 5});
+        GameBoard board = new GameBoard(new ScoreManager(new File(directory, "leaderboard.dat"), false), GameConfig.DEFAULT, file);
+        assertFalse(board.loadState());
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, Files.readAllBytes(board.getUnreadableSaveFile().toPath()));
+    }
+
+    private static GameState randomState(int width, int height, int colors, int nextCount) {
+        Random random = new Random(width * 31L + colors);
+        GameState state = new GameState(width, height, nextCount);
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                state.boardColors[row][col] = random.nextInt(3) == 0 ? GameEngine.EMPTY : random.nextInt(colors);
+            }
+        }
+        for (int i = 0; i < nextCount; i++) {
+            state.nextColors[i] = random.nextInt(colors);
+        }
+        state.score = 1234;
+        state.highScore = 5678;
+        state.moves = 42;
+        state.playMillis = 987_654_321L;
+        state.randomSaved = true;
+        state.seed = 77;
+        state.randomState = 0x1234_5678_9ABCL;
+        return state;
+    }
+
+    private static ByteBuffer asVersion(ByteBuffer current, GameState state, int version) {
+        int fieldsStart = HEADER_SIZE + 2 + state.nextColors.length + 8;
+        int movesSize = version >= 2 ? 12 : 0;
+        int randomSize = version >= 3 ? 17 : 0;
+        byte[] bytes = new byte[current.limit()];
+        current.get(0, bytes);
+        ByteBuffer old = ByteBuffer.allocate(bytes.length - (12 - movesSize) - (17 - randomSize));
+        old.put(bytes, 0, fieldsStart + movesSize);
+        old.put(bytes, fieldsStart + 29 - randomSize, bytes.length - 4 - (fieldsStart + 29 - randomSize));
+        old.put(4, (byte) version);
+        CRC32 crc = new CRC32();
+        crc.update(old.array(), 0, old.position());
+        old.putInt((int) crc.getValue());
+        return old.flip();
+    }
+
+    private static void assertSameState(GameState expected, GameState actual, int version) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int row = 0; row < expected.getHeight(); row++) {
+            assertArrayEquals(expected.boardColors[row], actual.boardColors[row]);
+        }
+        assertArrayEquals(expected.nextColors, actual.nextColors);
+        assertEquals(expected.score, actual.score);
+        assertEquals(expected.highScore, actual.highScore);
+        if (version >= 2) {
+            assertEquals(expected.moves, actual.moves);
+            assertEquals(expected.playMillis, actual.playMillis);
+        }
+        if (version >= 3) {
+            assertEquals(expected.randomSaved, actual.randomSaved);
+            assertEquals(expected.seed, actual.seed);
+            assertEquals(expected.randomState, actual.randomState);
+        }
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+}
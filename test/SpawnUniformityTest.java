@@ -0,0 +1,69 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpawnUniformityTest {
+    private static final int SIZE = GameConfig.DEFAULT.getWidth();
+    private static final int SAMPLES = 200_000;
+    private static final double Z_AT_P_001 = 3.090;
+
+    @Test
+    void spawnsAreUniformOverFreeCells() {
+        for (double fill : new double[]{0.0, 0.3, 0.6, 0.9}) {
+            GameEngine engine = new GameEngine(new Random(11));
+            Random layout = new Random(7);
+            for (int row = 0; row < SIZE; row++) {
+                for (int col = 0; col < SIZE; col++) {
+                    if (layout.nextDouble() < fill) {
+                        engine.setColor(row, col, layout.nextInt(GameConfig.DEFAULT.getColorCount()));
+                    }
+                }
+            }
+
+            boolean[] occupied = new boolean[SIZE * SIZE];
+            for (int cell = 0; cell < occupied.length; cell++) {
+                occupied[cell] = !engine.isEmpty(cell / SIZE, cell % SIZE);
+            }
+            int free = engine.countEmpty();
+            long[] hits = new long[SIZE * SIZE];
+            int[] single = {0};
+            for (int i = 0; i < SAMPLES; i++) {
+                assertTrue(engine.spawn(single));
+                int cell = findSpawned(engine, occupied);
+                hits[cell]++;
+                engine.setColor(cell / SIZE, cell % SIZE, GameEngine.EMPTY);
+            }
+
+            double expected = (double) SAMPLES / free;
+            double chiSquare = 0;
+            for (int cell = 0; cell < hits.length; cell++) {
+                if (occupied[cell]) continue;
+                double delta = hits[cell] - expected;
+                chiSquare += delta * delta / expected;
+            }
+            double critical = chiSquareCritical(free - 1, Z_AT_P_001);
+            assertTrue(chiSquare <= critical, String.format("fill %.1f: chi-square %.1f over %d free cells exceeds %.1f",
+                    fill, chiSquare, free, critical));
+        }
+    }
+
+    private static int findSpawned(GameEngine engine, boolean[] occupied) {
+        int spawned = -1;
+        for (int cell = 0; cell < occupied.length; cell++) {
+            if (!occupied[cell] && !engine.isEmpty(cell / SIZE, cell % SIZE)) {
+                assertEquals(-1, spawned, "spawn placed more than one ball");
+                spawned = cell;
+            }
+        }
+        assertNotEquals(-1, spawned, "spawn did not place a ball on a free cell");
+        return spawned;
+    }
+
+    private static double chiSquareCritical(int degrees, double z) {
+        double a = 2.0 / (9.0 * degrees);
+        double b = 1 - a + z * Math.sqrt(a);
+        return degrees * b * b * b;
+    }
+}
@@ -0,0 +1,185 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZobristHashTest {
+    @Test
+    void incrementalHashMatchesRecomputeThroughPlayUndoAndRedo() {
+        GameEngine engine = new GameEngine(new GameConfig(12, 10, 5, 7, 3), new GameRandom());
+        engine.setHistoryEnabled(true);
+        engine.startNewGame(8);
+        MovePolicy policy = MovePolicy.forName("random");
+        Random random = new Random(8);
+        int[] move = new int[4];
+        for (int step = 0; step < 300; step++) {
+            int action = random.nextInt(10);
+            if (action == 0) {
+                engine.undo();
+            } else if (action == 1) {
+                engine.redo();
+            } else if (!policy.chooseMove(engine, random, move)
+                    || engine.playTurn(move[0], move[1], move[2], move[3]) == GameEngine.TurnResult.GAME_OVER) {
+                engine.startNewGame(step);
+            }
+            assertEquals(ZobristHash.recompute(cells(engine)), engine.boardHash(), "step " + step);
+        }
+    }
+
+    @Test
+    void symmetricBoardsShareTheCanonicalKey() {
+        Random random = new Random(2);
+        for (int round = 0; round < 50; round++) {
+            int width = 3 + random.nextInt(8);
+            int height = round % 2 == 0 ? width : 3 + random.nextInt(8);
+            int[][] board = new int[height][width];
+            for (int[] row : board) {
+                for (int col = 0; col < width; col++) {
+                    row[col] = random.nextInt(3) == 0 ? random.nextInt(7) : GameEngine.EMPTY;
+                }
+            }
+            ZobristHash original = hash(board);
+            assertEquals(width == height ? 8 : 4, original.getSymmetryCount());
+            for (int[][] image : images(board)) {
+                ZobristHash transformed = hash(image);
+                assertEquals(original.getCanonical(), transformed.getCanonical());
+                boolean found = false;
+                for (int i = 0; i < original.getSymmetryCount(); i++) {
+                    found |= original.get(i) == transformed.get();
+                }
+                assertTrue(found, "image hash is one of the tracked symmetries");
+            }
+        }
+    }
+
+    @Test
+    void transpositionTableMissesOtherKeysAndDepths() {
+        TranspositionTable table = new TranspositionTable(4);
+        assertTrue(Double.isNaN(table.get(0, 0)));
+        table.put(1, 3, 0.5);
+        assertEquals(0.5, table.get(1, 3));
+        assertTrue(Double.isNaN(table.get(1, 2)));
+        assertTrue(Double.isNaN(table.get(1 + 16, 3)));
+        table.put(1 + 16, 3, 0.25);
+        assertTrue(Double.isNaN(table.get(1, 3)));
+        assertEquals(0.25, table.get(1 + 16, 3));
+        table.clear();
+        assertTrue(Double.isNaN(table.get(1 + 16, 3)));
+    }
+
+    @Test
+    void concurrentTranspositionTableNeverReturnsAnotherKeysValue() throws Exception {
+        TranspositionTable table = new TranspositionTable(6);
+        AtomicInteger hits = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                long seed = thread;
+                tasks.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 500_000; i++) {
+                        long key = ZobristHash.mix(random.nextInt(4096) + 1);
+                        if (random.nextBoolean()) {
+                            table.put(key, depthOf(key), valueOf(key));
+                        } else {
+                            double value = table.get(key, depthOf(key));
+                            if (!Double.isNaN(value)) {
+                                assertEquals(valueOf(key), value);
+                                hits.incrementAndGet();
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(hits.get() > 0);
+    }
+
+    @Test
+    void evaluationCacheKeepsTwoEntriesPerBucket() {
+        EvaluationCache cache = new EvaluationCache(2);
+        assertTrue(Double.isNaN(cache.get(0)));
+        cache.put(1, 10);
+        cache.put(1 + 4, 20);
+        assertEquals(10, cache.get(1));
+        assertEquals(20, cache.get(1 + 4));
+        cache.put(1 + 8, 30);
+        assertEquals(30, cache.get(1 + 8));
+        assertEquals(20, cache.get(1 + 4));
+        assertTrue(Double.isNaN(cache.get(1)));
+        assertTrue(Double.isNaN(cache.get(2)));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    private static int depthOf(long key) {
+        return (int) (key >>> 40) & 0x7F;
+    }
+
+    private static double valueOf(long key) {
+        return (double) (key & 0xFFFFF);
+    }
+
+    private static byte[] cells(GameEngine engine) {
+        byte[] cells = new byte[engine.getWidth() * engine.getHeight()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) engine.getColor(i / engine.getWidth(), i % engine.getWidth());
+        }
+        return cells;
+    }
+
+    private static ZobristHash hash(int[][] board) {
+        ZobristHash hash = new ZobristHash(board[0].length, board.length);
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col < board[0].length; col++) {
+                if (board[row][col] != GameEngine.EMPTY) hash.toggle(row, col, board[row][col]);
+            }
+        }
+        return hash;
+    }
+
+    private static List<int[][]> images(int[][] board) {
+        List<int[][]> images = new ArrayList<>();
+        int[][] image = board;
+        for (int turn = 0; turn < 4; turn++) {
+            if (turn % 2 == 0 || board.length == board[0].length) {
+                images.add(image);
+                images.add(mirror(image));
+            }
+            image = rotate(image);
+        }
+        return images;
+    }
+
+    private static int[][] rotate(int[][] board) {
+        int[][] rotated = new int[board[0].length][board.length];
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col < board[0].length; col++) {
+                rotated[col][board.length - 1 - row] = board[row][col];
+            }
+        }
+        return rotated;
+    }
+
+    private static int[][] mirror(int[][] board) {
+        int[][] mirrored = new int[board.length][board[0].length];
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col < board[0].length; col++) {
+                mirrored[row][board[0].length - 1 - col] = board[row][col];
+            }
+        }
+        return mirrored;
+    }
+}